@@ -0,0 +1,19 @@
+package com.paf.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionTotalsDTO {
+    private LocalDate periodStart;
+    private int meals;
+    private long protein;
+    private long fats;
+    private long carbs;
+    private long calories;
+}
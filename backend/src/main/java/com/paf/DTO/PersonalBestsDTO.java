@@ -0,0 +1,22 @@
+package com.paf.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalBestsDTO {
+    private int workouts;
+    private Integer maxDistance;
+    private LocalDate maxDistanceDate;
+    private Integer maxPushUps;
+    private LocalDate maxPushUpsDate;
+    private Integer minWeight;
+    private LocalDate minWeightDate;
+    private Integer maxWeight;
+    private LocalDate maxWeightDate;
+}
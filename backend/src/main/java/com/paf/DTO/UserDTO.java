@@ -2,8 +2,6 @@ package com.paf.DTO;
 
 import lombok.Data;
 
-import java.util.List;
-
 @Data
 public class UserDTO {
     private String id;
@@ -12,8 +10,6 @@ public class UserDTO {
     private String profileImage;
     private String mobileNumber;
     private String source;
-    private List<String> followedUsers;
-    private List<String> followingUsers;
     private int followersCount;
     private int followingCount;
 }
@@ -0,0 +1,26 @@
+package com.paf.DTO;
+
+import com.paf.model.User;
+
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDTO toUserDTO(User user) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(user.getId());
+        userDTO.setName(user.getName());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setProfileImage(user.getProfileImage());
+        userDTO.setMobileNumber(user.getMobileNumber());
+        userDTO.setSource(user.getSource() != null ? user.getSource().name() : null);
+        userDTO.setFollowersCount(user.getFollowersCount());
+        userDTO.setFollowingCount(user.getFollowingCount());
+        return userDTO;
+    }
+
+    public static UserResDTO toUserResDTO(User user) {
+        return new UserResDTO(user.getId(), user.getName(), user.getEmail(), user.getProfileImage(), user.getSource());
+    }
+}
@@ -4,8 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 import com.paf.model.RegistrationSource;
 
 @AllArgsConstructor
@@ -22,6 +20,4 @@ public class UserResDTO {
     private String profileImage;
 
     private RegistrationSource source;
-
-    private List<String> followedUsers;
 }
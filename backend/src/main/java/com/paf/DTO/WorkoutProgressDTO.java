@@ -0,0 +1,24 @@
+package com.paf.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutProgressDTO {
+    private LocalDate periodStart;
+    private int workouts;
+    private long totalDistance;
+    private double avgDistance;
+    private int maxDistance;
+    private long totalPushUps;
+    private double avgPushUps;
+    private int maxPushUps;
+    private Double avgWeight;
+    private Integer minWeight;
+    private Integer maxWeight;
+}
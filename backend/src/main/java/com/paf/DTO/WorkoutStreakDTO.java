@@ -0,0 +1,18 @@
+package com.paf.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutStreakDTO {
+    // consecutive days with a workout ending today or yesterday, 0 otherwise
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate longestStreakStart;
+    private LocalDate lastWorkoutDate;
+}
@@ -0,0 +1,93 @@
+package com.paf.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.paf.model.User;
+import com.paf.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded, TTL-based read-through cache in front of {@link UserRepository#findById}.
+ * Only read paths go through here; anything that writes a user must call
+ * {@link #invalidate} afterwards. Returned instances are shared, so callers must
+ * not modify them.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<String, User> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${paf.cache.users.max-size:10000}") long maxSize,
+                     @Value("${paf.cache.users.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<User> findById(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        // The map only ever holds a future; the caller that installed it runs the query
+        // afterwards, outside the bin lock a synchronous Cache.get would hold for the
+        // whole Mongo round trip (and which would pin a virtual thread's carrier).
+        // A null result is not stored, so a user created after a failed lookup is seen
+        // immediately.
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> result = cache.get(userId, (id, executor) -> load);
+        if (result == load) {
+            // anything thrown must still complete the future, or every later caller
+            // for this id would wait on it forever
+            try {
+                load.complete(userRepository.findById(userId).orElse(null));
+            } catch (Throwable e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(result.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public boolean exists(String userId) {
+        return findById(userId).isPresent();
+    }
+
+    public void invalidate(String... userIds) {
+        for (String userId : userIds) {
+            cache.synchronous().invalidate(userId);
+        }
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    // hits, misses, evictions and size as cache.* meters tagged cache=users
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
@@ -0,0 +1,68 @@
+package com.paf.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads the date strings stored before the date fields became BSON dates, so
+ * documents stay readable while {@code com.paf.migration.DateFieldMigration}
+ * rewrites them.
+ */
+public final class LegacyDateConverters {
+
+    // the format of java.util.Date#toString(), e.g. "Tue Apr 23 10:15:30 IST 2024"; ambiguous
+    // abbreviations such as IST resolve to this JVM's zone, which is the one that wrote them
+    private static final DateTimeFormatter DATE_TO_STRING = new DateTimeFormatterBuilder()
+            .appendPattern("EEE MMM dd HH:mm:ss ")
+            .appendZoneText(TextStyle.SHORT, Set.of(ZoneId.systemDefault()))
+            .appendPattern(" yyyy")
+            .toFormatter(Locale.US);
+
+    private LegacyDateConverters() {
+    }
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(new StringToInstant(), new StringToLocalDate());
+    }
+
+    public static Instant parseInstant(String value) {
+        try {
+            return ZonedDateTime.parse(value, DATE_TO_STRING).toInstant();
+        } catch (DateTimeParseException e) {
+            return Instant.parse(value);
+        }
+    }
+
+    public static LocalDate parseLocalDate(String value) {
+        // <input type="date"> sent yyyy-MM-dd; anything longer carries a time part we drop
+        return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+    }
+
+    @ReadingConverter
+    static class StringToInstant implements Converter<String, Instant> {
+        @Override
+        public Instant convert(String source) {
+            return parseInstant(source);
+        }
+    }
+
+    @ReadingConverter
+    static class StringToLocalDate implements Converter<String, LocalDate> {
+        @Override
+        public LocalDate convert(String source) {
+            return parseLocalDate(source);
+        }
+    }
+}
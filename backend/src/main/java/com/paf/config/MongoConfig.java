@@ -0,0 +1,41 @@
+package com.paf.config;
+
+import com.paf.metrics.MongoCommandCounter;
+import com.paf.metrics.SlowQuerySampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+@Configuration
+@EnableMongoAuditing
+public class MongoConfig {
+
+    // Native driver codecs store LocalDate as UTC midnight instead of the JVM's zone.
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter -> adapter
+                .useNativeDriverJavaTimeCodecs()
+                .registerConverters(LegacyDateConverters.all()));
+    }
+
+    // With virtual threads the request count is no longer capped by Tomcat's pool,
+    // so the connection pool becomes the limit on concurrent queries.
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${paf.mongo.max-pool-size:100}") int maxPoolSize) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.maxSize(maxPoolSize));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandCounterCustomizer(MongoCommandCounter mongoCommandCounter) {
+        return builder -> builder.addCommandListener(mongoCommandCounter);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQuerySamplerCustomizer(SlowQuerySampler slowQuerySampler) {
+        return builder -> builder.addCommandListener(slowQuerySampler);
+    }
+}
@@ -0,0 +1,88 @@
+package com.paf.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ensures every index declared on the {@code @Document} models ({@code @Indexed},
+ * {@code @CompoundIndex}) exists before the migrations and the first request run.
+ * Failures (e.g. duplicate emails blocking the unique index) are logged and
+ * reported instead of aborting startup.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexBootstrap implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexBootstrap.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    private final List<IndexStatus> report = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+    }
+
+    public List<IndexStatus> ensureIndexes() {
+        report.clear();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getCollection());
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                String keys = definition.getIndexKeys().toJson();
+                try {
+                    String name = indexOps.ensureIndex(definition);
+                    report.add(new IndexStatus(entity.getCollection(), name, keys, true, null));
+                    log.info("Ensured index {} {} on {}", name, keys, entity.getCollection());
+                } catch (RuntimeException e) {
+                    report.add(new IndexStatus(entity.getCollection(), null, keys, false, e.getMessage()));
+                    log.error("Could not create index {} on {}: {}", keys, entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+        return getReport();
+    }
+
+    public List<IndexStatus> getReport() {
+        synchronized (report) {
+            return new ArrayList<>(report);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class IndexStatus {
+        private String collection;
+        private String name;
+        private String keys;
+        private boolean created;
+        private String error;
+    }
+}
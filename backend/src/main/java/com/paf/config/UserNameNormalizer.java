@@ -0,0 +1,25 @@
+package com.paf.config;
+
+import com.paf.model.User;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Keeps {@code users.nameLower} in step with {@code name} on every save, so the
+ * directory can do case-insensitive prefix search as an index range scan.
+ */
+@Component
+public class UserNameNormalizer implements BeforeConvertCallback<User> {
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public User onBeforeConvert(User user, String collection) {
+        user.setNameLower(normalize(user.getName()));
+        return user;
+    }
+}
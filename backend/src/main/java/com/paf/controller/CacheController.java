@@ -0,0 +1,32 @@
+package com.paf.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.paf.cache.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheController {
+
+    @Autowired
+    private UserCache userCache;
+
+    @GetMapping("/users")
+    public Map<String, Object> getUserCacheStats() {
+        CacheStats stats = userCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", userCache.size());
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictionCount", stats.evictionCount());
+        body.put("loadCount", stats.loadCount());
+        return body;
+    }
+}
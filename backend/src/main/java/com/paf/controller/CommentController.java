@@ -2,8 +2,10 @@ package com.paf.controller;
 
 import java.util.List;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.model.Comment;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +24,18 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsForPost(postId));
     }
 
+    @GetMapping(value = "/post/{postId}", params = "limit")
+    public ResponseEntity<CursorPageDTO<Comment>> getCommentThread(@PathVariable String postId,
+                                                                   @RequestParam(required = false) String after,
+                                                                   @RequestParam Integer limit,
+                                                                   @RequestParam(defaultValue = "desc") String order) {
+        try {
+            return ResponseEntity.ok(commentService.getCommentThread(postId, after, limit, Sort.Direction.fromString(order)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/post/{postId}")
     public ResponseEntity<Comment> addCommentToPost(
             @PathVariable String postId,
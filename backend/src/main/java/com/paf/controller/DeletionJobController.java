@@ -0,0 +1,33 @@
+package com.paf.controller;
+
+import com.paf.model.DeletionJob;
+import com.paf.service.CascadeDeleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/deletions")
+public class DeletionJobController {
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @GetMapping
+    public List<DeletionJob> getRecentJobs(@RequestParam(required = false) Integer limit) {
+        return cascadeDeleteService.getRecentJobs(limit);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeletionJob> getJob(@PathVariable String jobId) {
+        return cascadeDeleteService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
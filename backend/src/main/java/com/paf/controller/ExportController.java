@@ -0,0 +1,94 @@
+package com.paf.controller;
+
+import com.paf.service.ExportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * NDJSON dumps streamed straight from a database cursor. Each export runs as a
+ * {@link WebAsyncTask} with no timeout, because it takes as long as the
+ * collection does; every other async request keeps the finite
+ * {@code spring.mvc.async.request-timeout}. Exports run on their own small
+ * pool rather than the shared task executor, so a long dump never holds the
+ * threads that {@code @Async} timeline fan-out and cascade deletes need. When
+ * the pool and its queue are full the export is refused with 503.
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private static final long NO_TIMEOUT = -1;
+
+    @Autowired
+    private ExportService exportService;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public ExportController(@Value("${paf.export.max-concurrent:2}") int maxConcurrent,
+                            @Value("${paf.export.queue-capacity:8}") int queueCapacity) {
+        // not a bean: another Executor bean would replace Boot's applicationTaskExecutor
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @GetMapping("/posts")
+    public WebAsyncTask<Void> exportPosts(HttpServletResponse response) {
+        return ndjson(response, exportService::exportPosts);
+    }
+
+    @GetMapping("/users")
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response) {
+        return ndjson(response, exportService::exportUsers);
+    }
+
+    @GetMapping("/workoutStatus")
+    public WebAsyncTask<Void> exportWorkoutStatuses(HttpServletResponse response) {
+        return ndjson(response, exportService::exportWorkoutStatuses);
+    }
+
+    @GetMapping("/mealPlans")
+    public WebAsyncTask<Void> exportMealPlans(HttpServletResponse response) {
+        return ndjson(response, exportService::exportMealPlans);
+    }
+
+    @GetMapping("/share")
+    public WebAsyncTask<Void> exportSharePosts(HttpServletResponse response) {
+        return ndjson(response, exportService::exportSharePosts);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    private WebAsyncTask<Void> ndjson(HttpServletResponse response, StreamingResponseBody body) {
+        return new WebAsyncTask<>(NO_TIMEOUT, executor, () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
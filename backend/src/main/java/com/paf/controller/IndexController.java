@@ -0,0 +1,28 @@
+package com.paf.controller;
+
+import com.paf.config.MongoIndexBootstrap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/indexes")
+public class IndexController {
+
+    @Autowired
+    private MongoIndexBootstrap mongoIndexBootstrap;
+
+    @GetMapping
+    public List<MongoIndexBootstrap.IndexStatus> getIndexReport() {
+        return mongoIndexBootstrap.getReport();
+    }
+
+    @PostMapping
+    public List<MongoIndexBootstrap.IndexStatus> ensureIndexes() {
+        return mongoIndexBootstrap.ensureIndexes();
+    }
+}
@@ -1,10 +1,15 @@
 package com.paf.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import com.paf.DTO.NutritionTotalsDTO;
 import com.paf.model.MealPlan;
+import com.paf.model.RollupGranularity;
 import com.paf.service.MealPlanService;
+import com.paf.service.NutritionService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -24,6 +30,9 @@ public class MealPlanController {
     @Autowired
     private MealPlanService mealPlanService;
 
+    @Autowired
+    private NutritionService nutritionService;
+
     @GetMapping
     public List<MealPlan> getAllMealPlans() {
         return mealPlanService.getAllMealPlans();
@@ -58,4 +67,34 @@ public class MealPlanController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/nutrition/{userId}/daily")
+    public ResponseEntity<List<NutritionTotalsDTO>> getDailyNutrition(@PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return getNutrition(userId, RollupGranularity.DAY, from, to);
+    }
+
+    @GetMapping("/nutrition/{userId}/weekly")
+    public ResponseEntity<List<NutritionTotalsDTO>> getWeeklyNutrition(@PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return getNutrition(userId, RollupGranularity.WEEK, from, to);
+    }
+
+    // recomputes a user's rollups from their meal plans, e.g. after an interrupted update
+    @PostMapping("/nutrition/{userId}/rebuild")
+    public ResponseEntity<Void> rebuildNutrition(@PathVariable String userId) {
+        nutritionService.rebuild(userId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    private ResponseEntity<List<NutritionTotalsDTO>> getNutrition(String userId, RollupGranularity granularity,
+            LocalDate from, LocalDate to) {
+        try {
+            return ResponseEntity.ok(nutritionService.getTotals(userId, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
 }
@@ -1,12 +1,15 @@
 package com.paf.controller;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.PostDTO;
 import com.paf.model.Post;
 import com.paf.service.PostService;
+import com.paf.service.TimelineService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +21,43 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    // A matching If-None-Match is answered with 304 from the post versions alone.
     @GetMapping
-    public List<Post> getAllPosts() {
-        return postService.getAllPosts();
+    public List<Post> getAllPosts(@RequestParam(defaultValue = "false") boolean includeComments, WebRequest request) {
+        if (request.checkNotModified(postService.getAllPostsETag())) {
+            return null;
+        }
+        return postService.getAllPosts(includeComments);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDTO<Post>> getFeed(@RequestParam(required = false) String after,
+                                                       @RequestParam Integer limit,
+                                                       @RequestParam(defaultValue = "false") boolean includeComments,
+                                                       WebRequest request) {
+        try {
+            if (request.checkNotModified(postService.getFeedETag(after, limit))) {
+                return null;
+            }
+            return ResponseEntity.ok(postService.getFeed(after, limit, includeComments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/timeline/{userId}")
+    public ResponseEntity<CursorPageDTO<Post>> getTimeline(@PathVariable String userId,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(defaultValue = "false") boolean includeComments) {
+        try {
+            return ResponseEntity.ok(timelineService.getTimeline(userId, after, limit, includeComments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -53,7 +90,8 @@ public class PostController {
     }
 
     @GetMapping("user/{userId}")
-    public List<Post> getPostByIdUserId(@PathVariable String userId) {
-       return postService.getPostByIdUserId(userId);
+    public List<Post> getPostByIdUserId(@PathVariable String userId,
+                                        @RequestParam(defaultValue = "false") boolean includeComments) {
+       return postService.getPostByIdUserId(userId, includeComments);
     }
 }
\ No newline at end of file
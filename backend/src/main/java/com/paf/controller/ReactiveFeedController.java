@@ -0,0 +1,63 @@
+package com.paf.controller;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Comment;
+import com.paf.model.Post;
+import com.paf.service.ReactiveFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive alternatives to {@code GET /posts?limit=} and
+ * {@code GET /api/comments/post/{postId}?limit=}. The request thread is released
+ * while the queries run, so a burst of feed reads does not hold one Tomcat thread
+ * each.
+ */
+@RestController
+@RequestMapping("/reactive")
+public class ReactiveFeedController {
+
+    @Autowired
+    private ReactiveFeedService reactiveFeedService;
+
+    @GetMapping("/posts")
+    public Mono<ResponseEntity<CursorPageDTO<Post>>> getFeed(@RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(defaultValue = "false") boolean includeComments) {
+        return reactiveFeedService.getFeed(after, limit, includeComments)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(IllegalArgumentException.class, ResponseEntity.badRequest().build());
+    }
+
+    @GetMapping(value = "/posts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Post> streamFeed(@RequestParam(required = false) String after,
+                                 @RequestParam(required = false) Integer limit,
+                                 @RequestParam(defaultValue = "false") boolean includeComments) {
+        return reactiveFeedService.streamFeed(after, limit, includeComments);
+    }
+
+    @GetMapping("/comments/post/{postId}")
+    public Mono<ResponseEntity<CursorPageDTO<Comment>>> getCommentThread(@PathVariable String postId,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam(required = false) Integer limit,
+                                                                         @RequestParam(defaultValue = "desc") String order) {
+        Sort.Direction direction;
+        try {
+            direction = Sort.Direction.fromString(order);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return reactiveFeedService.getCommentThread(postId, after, limit, direction)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(IllegalArgumentException.class, ResponseEntity.badRequest().build());
+    }
+}
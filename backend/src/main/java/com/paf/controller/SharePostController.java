@@ -1,5 +1,6 @@
 package com.paf.controller;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ShareDTO;
 import com.paf.model.SharePostModel;
 import com.paf.service.SharePostService;
@@ -7,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 @RestController
@@ -16,10 +18,27 @@ public class SharePostController {
     private SharePostService sharePostService;
 
     @GetMapping
-    public List<SharePostModel> getSharePosts() {
+    public List<SharePostModel> getSharePosts(WebRequest request) {
+        if (request.checkNotModified(sharePostService.getSharePostsETag())) {
+            return null;
+        }
         return sharePostService.getSharePosts();
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDTO<SharePostModel>> getSharePostsPage(@RequestParam(required = false) String after,
+                                                                           @RequestParam Integer limit,
+                                                                           WebRequest request) {
+        try {
+            if (request.checkNotModified(sharePostService.getSharePostsETag(after, limit))) {
+                return null;
+            }
+            return ResponseEntity.ok(sharePostService.getSharePosts(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<SharePostModel> createSharePost(@RequestBody ShareDTO shareDTO) {
         SharePostModel savedPost = sharePostService.createSharePost(shareDTO);
@@ -37,4 +56,15 @@ public class SharePostController {
         return sharePostService.getSharePostsByuser(id);
     }
 
+    @GetMapping(value = "/{id}", params = "limit")
+    public ResponseEntity<CursorPageDTO<SharePostModel>> getSharePostsPageByUserId(@PathVariable String id,
+                                                                                   @RequestParam(required = false) String after,
+                                                                                   @RequestParam Integer limit) {
+        try {
+            return ResponseEntity.ok(sharePostService.getSharePostsByuser(id, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.paf.controller;
+
+import com.paf.metrics.SlowQuerySampler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/slow-queries")
+public class SlowQueryController {
+
+    @Autowired
+    private SlowQuerySampler slowQuerySampler;
+
+    @GetMapping
+    public List<SlowQuerySampler.SlowQuery> getSlowQueries(@RequestParam(defaultValue = "false") boolean collectionScansOnly) {
+        List<SlowQuerySampler.SlowQuery> queries = slowQuerySampler.getRecent();
+        if (collectionScansOnly) {
+            return queries.stream().filter(SlowQuerySampler.SlowQuery::collectionScan).toList();
+        }
+        return queries;
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQuerySampler.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,12 +1,16 @@
 package com.paf.controller;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ProfileUpdateDTO;
 import com.paf.DTO.UserDTO;
+import com.paf.DTO.UserResDTO;
+import com.paf.model.RegistrationSource;
 import com.paf.model.User;
 import com.paf.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,7 +28,11 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDTO getUserById(@PathVariable String userId) {
+    public UserDTO getUserById(@PathVariable String userId, WebRequest request) {
+        String eTag = userService.getUserETag(userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
@@ -33,6 +41,19 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDTO<UserDTO>> getUserDirectory(@RequestParam(required = false) String q,
+                                                                   @RequestParam(required = false) Boolean active,
+                                                                   @RequestParam(required = false) RegistrationSource source,
+                                                                   @RequestParam(required = false) String after,
+                                                                   @RequestParam Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getUserDirectory(q, active, source, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/active")
     public List<UserDTO> getActiveUsers() {
         return userService.getActiveUsers();
@@ -43,6 +64,28 @@ public class UserController {
         return userService.followUser(userId, FollowedUserId);
     }
 
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<CursorPageDTO<UserResDTO>> getFollowers(@PathVariable String userId,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getFollowers(userId, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<CursorPageDTO<UserResDTO>> getFollowing(@PathVariable String userId,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getFollowing(userId, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/login")
     public ResponseEntity<Object> loginUser(@RequestBody User user) {
         return userService.loginUser(user.getEmail(), user.getPassword());
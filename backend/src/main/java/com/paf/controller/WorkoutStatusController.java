@@ -1,9 +1,17 @@
 package com.paf.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import com.paf.DTO.PersonalBestsDTO;
+import com.paf.DTO.WorkoutProgressDTO;
+import com.paf.DTO.WorkoutStreakDTO;
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
 import com.paf.model.WorkoutStatus;
+import com.paf.service.WorkoutProgressService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.paf.service.WorkoutStatusService;
@@ -25,6 +34,9 @@ public class WorkoutStatusController {
     @Autowired
     private WorkoutStatusService workoutStatusService;
 
+    @Autowired
+    private WorkoutProgressService workoutProgressService;
+
     @GetMapping
     public List<WorkoutStatus> getAllWorkoutStatus() {
         return workoutStatusService.getAllWorkoutStatus();
@@ -60,4 +72,34 @@ public class WorkoutStatusController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-}
\ No newline at end of file
+    @GetMapping("/progress/{userId}")
+    public ResponseEntity<List<WorkoutProgressDTO>> getProgress(@PathVariable String userId,
+            @RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            RollupGranularity period = RollupGranularity.valueOf(granularity.toUpperCase());
+            return ResponseEntity.ok(workoutProgressService.getProgress(userId, period, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/progress/{userId}/bests")
+    public PersonalBestsDTO getPersonalBests(@PathVariable String userId) {
+        return workoutProgressService.getPersonalBests(userId);
+    }
+
+    @GetMapping("/progress/{userId}/streaks")
+    public WorkoutStreakDTO getStreaks(@PathVariable String userId) {
+        return workoutProgressService.getStreaks(userId);
+    }
+
+    // recomputes a user's rollups from their statuses, e.g. after an interrupted update
+    @PostMapping("/progress/{userId}/rebuild")
+    public ResponseEntity<Void> rebuildProgress(@PathVariable String userId) {
+        workoutProgressService.rebuild(userId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+}
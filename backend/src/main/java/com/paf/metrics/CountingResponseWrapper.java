@@ -0,0 +1,86 @@
+package com.paf.metrics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Passes the body through unchanged while counting the bytes written, so the
+ * size of streamed responses is known without buffering them.
+ */
+class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private volatile long bytesWritten;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream delegate = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return delegate.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    delegate.setWriteListener(listener);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    delegate.write(b);
+                    bytesWritten++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    delegate.write(b, off, len);
+                    bytesWritten += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    delegate.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    delegate.close();
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+}
@@ -0,0 +1,35 @@
+package com.paf.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the MongoDB commands a thread issues between {@link #start()} and
+ * {@link #stop()}. The sync driver notifies listeners on the thread running the
+ * command, so a request's count covers everything its handler did inline; work
+ * on other threads (async fan-out, reactive pipelines) is not attributed to it.
+ */
+@Component
+public class MongoCommandCounter implements CommandListener {
+
+    private final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    public void start() {
+        counts.set(new int[1]);
+    }
+
+    public int stop() {
+        int[] count = counts.get();
+        counts.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        int[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.paf.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records, per endpoint, how many MongoDB commands a request issued and how
+ * large its request and response bodies were. Latency per endpoint comes from
+ * Spring Boot's own {@code http.server.requests} timer. Response sizes are the
+ * bytes the application wrote, before any compression by the container.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final MongoCommandCounter mongoCommandCounter;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, MongoCommandCounter mongoCommandCounter) {
+        this.meterRegistry = meterRegistry;
+        this.mongoCommandCounter = mongoCommandCounter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(response);
+        mongoCommandCounter.start();
+        int mongoCommands;
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            mongoCommands = mongoCommandCounter.stop();
+        }
+
+        if (request.isAsyncStarted()) {
+            // streamed bodies are written on another thread, along with their queries
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    recordSizes(request, countingResponse);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+
+        summary("paf.http.mongo.commands", "MongoDB commands issued while handling a request", null, request)
+                .record(mongoCommands);
+        recordSizes(request, countingResponse);
+    }
+
+    private void recordSizes(HttpServletRequest request, CountingResponseWrapper response) {
+        if (request.getContentLengthLong() >= 0) {
+            summary("paf.http.request.size", "Request body size", "bytes", request).record(request.getContentLengthLong());
+        }
+        summary("paf.http.response.size", "Response body size before compression", "bytes", request)
+                .record(response.getBytesWritten());
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, HttpServletRequest request) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("method", request.getMethod())
+                .tag("uri", uri(request))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // the route template, so ids in paths do not each create their own series
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,274 @@
+package com.paf.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches every MongoDB command the application issues. The number of documents
+ * each one returned is recorded per collection and command as
+ * {@code paf.mongo.documents}; its latency is already in Spring Boot's
+ * {@code mongodb.driver.commands} timer. Reads slower than the threshold are
+ * explained on a background thread, at most once per query shape and interval,
+ * and kept with their winning plan in a bounded buffer of recent slow queries.
+ * Plans containing a {@code COLLSCAN} are logged as warnings.
+ */
+@Component
+public class SlowQuerySampler implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQuerySampler.class);
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct", "findAndModify");
+    private static final Set<String> IGNORED = Set.of("explain", "hello", "isMaster", "ping", "buildInfo",
+            "saslStart", "saslContinue", "endSessions", "killCursors");
+    private static final Set<String> SESSION_FIELDS = Set.of("$db", "$clusterTime", "$readPreference", "lsid",
+            "txnNumber", "autocommit", "startTransaction", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    public record SlowQuery(Instant at, String database, String collection, String command, String shape,
+                            long durationMs, long documents, List<String> planStages, boolean collectionScan,
+                            String explainError) {
+    }
+
+    private record Pending(String collection, BsonDocument command) {
+    }
+
+    private record Plan(List<String> stages, String error) {
+
+        boolean collectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+    private final Cache<String, Plan> plans;
+    private final ThreadPoolExecutor explainer;
+
+    public SlowQuerySampler(MeterRegistry meterRegistry,
+                            ObjectProvider<MongoClient> mongoClient,
+                            @Value("${paf.mongo.slow-query.threshold:100ms}") Duration threshold,
+                            @Value("${paf.mongo.slow-query.capacity:200}") int capacity,
+                            @Value("${paf.mongo.slow-query.explain-interval:10m}") Duration explainInterval) {
+        this.meterRegistry = meterRegistry;
+        this.mongoClient = mongoClient;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(explainInterval)
+                .build();
+        // one explain at a time; when the queue is full the query is kept without a plan
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String name = event.getCommandName();
+        if (IGNORED.contains(name)) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        // the event's document may be backed by a pooled buffer, so keep a copy for explain()
+        pending.put(event.getRequestId(), new Pending(collection(name, command),
+                EXPLAINABLE.contains(name) ? command.clone() : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Pending started = pending.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        String name = event.getCommandName();
+        long documents = documents(name, event.getResponse());
+        DistributionSummary.builder("paf.mongo.documents")
+                .description("Documents returned or affected by a MongoDB command")
+                .tag("collection", started.collection())
+                .tag("command", name)
+                .register(meterRegistry)
+                .record(documents);
+
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsed >= thresholdNanos && started.command() != null) {
+            sample(event.getDatabaseName(), started, name, TimeUnit.NANOSECONDS.toMillis(elapsed), documents);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        pending.remove(event.getRequestId());
+    }
+
+    public List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    public void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+        plans.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    private void sample(String database, Pending started, String name, long durationMs, long documents) {
+        String shape = shape(name, started.command()).toJson();
+        Instant at = Instant.now();
+        try {
+            explainer.execute(() -> {
+                Plan plan = plans.get(shape, key -> explain(database, started.command()));
+                add(new SlowQuery(at, database, started.collection(), name, shape, durationMs, documents,
+                        plan.stages(), plan.collectionScan(), plan.error()));
+                if (plan.collectionScan()) {
+                    log.warn("Collection scan on {}.{} took {} ms: {}", database, started.collection(), durationMs, shape);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            add(new SlowQuery(at, database, started.collection(), name, shape, durationMs, documents,
+                    List.of(), false, "explain queue full"));
+        }
+    }
+
+    private void add(SlowQuery query) {
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeLast();
+            }
+            recent.addFirst(query);
+        }
+    }
+
+    private Plan explain(String database, BsonDocument command) {
+        BsonDocument explained = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!SESSION_FIELDS.contains(key)) {
+                explained.put(key, value);
+            }
+        });
+        try {
+            Document result = mongoClient.getObject().getDatabase(database)
+                    .runCommand(new Document("explain", explained).append("verbosity", "queryPlanner"));
+            List<String> stages = new ArrayList<>();
+            collectWinningStages(result.toBsonDocument(), stages, false);
+            return new Plan(stages, null);
+        } catch (RuntimeException e) {
+            return new Plan(List.of(), e.getMessage());
+        }
+    }
+
+    // walks every winningPlan in the output, which covers both find and the
+    // $cursor stage of an aggregation, and lists its stages depth first
+    private static void collectWinningStages(BsonValue value, List<String> stages, boolean inWinningPlan) {
+        if (value.isDocument()) {
+            BsonDocument doc = value.asDocument();
+            if (inWinningPlan && doc.isString("stage")) {
+                stages.add(doc.getString("stage").getValue());
+            }
+            doc.forEach((key, child) -> collectWinningStages(child, stages,
+                    inWinningPlan || key.equals("winningPlan")));
+        } else if (value.isArray()) {
+            value.asArray().forEach(child -> collectWinningStages(child, stages, inWinningPlan));
+        }
+    }
+
+    private static String collection(String name, BsonDocument command) {
+        String field = name.equals("getMore") ? "collection" : name;
+        BsonValue value = command.get(field);
+        return value != null && value.isString() ? value.asString().getValue() : "none";
+    }
+
+    private static long documents(String name, BsonDocument response) {
+        if (response.isDocument("cursor")) {
+            BsonDocument cursor = response.getDocument("cursor");
+            String batch = name.equals("getMore") ? "nextBatch" : "firstBatch";
+            return cursor.isArray(batch) ? cursor.getArray(batch).size() : 0;
+        }
+        if (response.isArray("values")) {
+            return response.getArray("values").size();
+        }
+        if (name.equals("findAndModify")) {
+            return response.isDocument("value") ? 1 : 0;
+        }
+        if (response.isNumber("n")) {
+            return response.getNumber("n").longValue();
+        }
+        return 0;
+    }
+
+    // the command with every literal replaced by "?", so queries differing only in their values group together
+    private static BsonDocument shape(String name, BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (SESSION_FIELDS.contains(key)) {
+                return;
+            }
+            shape.put(key, key.equals(name) || key.equals("key") ? value : placeholders(value));
+        });
+        return shape;
+    }
+
+    private static BsonValue placeholders(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument doc = new BsonDocument();
+            value.asDocument().forEach((key, child) -> doc.put(key, placeholders(child)));
+            return doc;
+        }
+        if (value.isArray()) {
+            BsonArray array = new BsonArray();
+            BsonArray values = value.asArray();
+            // pipelines and $and/$or keep every element; lists of literals collapse to one
+            if (!values.isEmpty() && values.get(0).isDocument()) {
+                values.forEach(child -> array.add(placeholders(child)));
+            } else if (!values.isEmpty()) {
+                array.add(placeholders(values.get(0)));
+            }
+            return array;
+        }
+        return new BsonString("?");
+    }
+}
@@ -0,0 +1,67 @@
+package com.paf.migration;
+
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Replaces the {@code Date.toString()} text previously stored in
+ * {@code comments.createdAt} with a real date taken from the ObjectId, so the
+ * thread index can order comments. Previews copied from the old documents are
+ * dropped and reseeded by {@link CommentPreviewMigration}, which runs later.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class CommentCreatedAtMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCreatedAtMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = new Query(new Criteria().orOperator(
+                Criteria.where("createdAt").exists(false),
+                Criteria.where("createdAt").type(BsonType.STRING.getValue()))).limit(BATCH_SIZE);
+        pending.fields().include("_id");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, "comments")).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "comments");
+            for (Document doc : batch) {
+                Object id = doc.get("_id");
+                Instant createdAt = id instanceof ObjectId ? ((ObjectId) id).getDate().toInstant() : Instant.EPOCH;
+                bulk.updateOne(Query.query(Criteria.where("_id").is(id)), Update.update("createdAt", createdAt));
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+
+        long stalePreviews = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("latestComments.createdAt").type(BsonType.STRING.getValue())),
+                new Update().unset("latestComments"), "posts").getModifiedCount();
+
+        if (migrated > 0 || stalePreviews > 0) {
+            log.info("Converted createdAt on {} comments, reset previews on {} posts", migrated, stalePreviews);
+        }
+    }
+}
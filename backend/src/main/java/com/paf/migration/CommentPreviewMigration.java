@@ -0,0 +1,65 @@
+package com.paf.migration;
+
+import com.paf.model.CommentPreview;
+import com.paf.repo.CommentRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds {@code commentCount} and {@code latestComments} on posts written before
+ * the denormalized fields existed. Posts that already carry a preview array are
+ * left alone, so the runner is safe to repeat.
+ */
+@Component
+public class CommentPreviewMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentPreviewMigration.class);
+    private static final int BATCH_SIZE = 500;
+    private static final String POSTS = "posts";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = new Query(Criteria.where("latestComments").exists(false)).limit(BATCH_SIZE);
+        pending.fields().include("_id");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, POSTS)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, POSTS);
+            for (Document doc : batch) {
+                Object id = doc.get("_id");
+                String postId = id.toString();
+                long count = mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), "comments");
+                List<CommentPreview> previews = commentRepository.findTop3ByPostIdOrderByCreatedAtDescIdDesc(postId).stream()
+                        .map(CommentPreview::of)
+                        .toList();
+                bulk.updateOne(Query.query(Criteria.where("_id").is(id)),
+                        Update.update("commentCount", count).set("latestComments", previews));
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Seeded comment previews on {} posts", migrated);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.paf.migration;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Backfills {@code createdAt} for documents written before the field existed,
+ * using the creation time embedded in the ObjectId. Documents without the field
+ * would otherwise never be reached by the keyset-paginated endpoints.
+ */
+@Component
+public class CreatedAtBackfillMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CreatedAtBackfillMigration.class);
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> COLLECTIONS = List.of("posts", "shared_posts");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String collection : COLLECTIONS) {
+            backfill(collection);
+        }
+    }
+
+    private void backfill(String collection) {
+        Query pending = new Query(Criteria.where("createdAt").exists(false)).limit(BATCH_SIZE);
+        pending.fields().include("_id");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, collection)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document doc : batch) {
+                Object id = doc.get("_id");
+                Instant createdAt = id instanceof ObjectId ? ((ObjectId) id).getDate().toInstant() : Instant.EPOCH;
+                bulk.updateOne(Query.query(Criteria.where("_id").is(id)), Update.update("createdAt", createdAt));
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Backfilled createdAt on {} documents in {}", migrated, collection);
+        }
+    }
+}
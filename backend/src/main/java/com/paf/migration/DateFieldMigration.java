@@ -0,0 +1,90 @@
+package com.paf.migration;
+
+import com.paf.config.LegacyDateConverters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Rewrites the date fields that used to be stored as strings into BSON dates,
+ * one batch at a time while the application keeps serving. Until a document is
+ * reached, {@link LegacyDateConverters} still reads its string value. Values
+ * that cannot be parsed are moved to {@code <field>Legacy} so they are not
+ * picked up again.
+ */
+@Component
+public class DateFieldMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DateFieldMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate("posts", "date", DateFieldMigration::toTimestamp);
+        migrate("mealPlans", "date", DateFieldMigration::toDay);
+        migrate("workoutPlans", "date", DateFieldMigration::toDay);
+        migrate("workoutStatus", "date", DateFieldMigration::toDay);
+    }
+
+    private void migrate(String collection, String field, BiFunction<Object, String, Date> parser) {
+        Query pending = new Query(Criteria.where(field).type(BsonType.STRING.getValue())).limit(BATCH_SIZE);
+        pending.fields().include("_id").include(field);
+
+        long migrated = 0;
+        long unparseable = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, collection)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document doc : batch) {
+                Object id = doc.get("_id");
+                String value = doc.getString(field);
+                Query byId = Query.query(Criteria.where("_id").is(id));
+                try {
+                    bulk.updateOne(byId, Update.update(field, parser.apply(id, value)));
+                } catch (DateTimeParseException e) {
+                    bulk.updateOne(byId, new Update().set(field + "Legacy", value).unset(field));
+                    unparseable++;
+                }
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Converted {} on {} documents in {} ({} unparseable)", field, migrated, collection, unparseable);
+        }
+    }
+
+    private static Date toTimestamp(Object id, String value) {
+        if (value.isBlank()) {
+            Instant fallback = id instanceof ObjectId ? ((ObjectId) id).getDate().toInstant() : Instant.EPOCH;
+            return Date.from(fallback);
+        }
+        return Date.from(LegacyDateConverters.parseInstant(value));
+    }
+
+    private static Date toDay(Object id, String value) {
+        return Date.from(LegacyDateConverters.parseLocalDate(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -0,0 +1,95 @@
+package com.paf.migration;
+
+import com.paf.model.Follow;
+import com.paf.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves the follow graph that used to be embedded in {@code users.followedUsers} /
+ * {@code users.followingUsers} into the {@code follows} edge collection. Each
+ * batch recomputes the counters of every user its edges touch before it unsets
+ * the embedded lists, so an interrupted run resumes where it stopped without
+ * leaving counters behind.
+ */
+@Component
+public class FollowEdgeMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowEdgeMigration.class);
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = new Query(new Criteria().orOperator(
+                Criteria.where("followedUsers").exists(true),
+                Criteria.where("followingUsers").exists(true))).limit(BATCH_SIZE);
+        pending.fields().include("_id").include("followedUsers").include("followingUsers");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, "users")).isEmpty()) {
+            Set<String> touched = new HashSet<>();
+            BulkOperations edges = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+            boolean hasEdges = false;
+            for (Document user : batch) {
+                String userId = user.getObjectId("_id").toHexString();
+                touched.add(userId);
+                for (String followee : user.getList("followedUsers", String.class, List.of())) {
+                    upsertEdge(edges, userId, followee);
+                    touched.add(followee);
+                    hasEdges = true;
+                }
+                for (String follower : user.getList("followingUsers", String.class, List.of())) {
+                    upsertEdge(edges, follower, userId);
+                    touched.add(follower);
+                    hasEdges = true;
+                }
+            }
+            if (hasEdges) {
+                edges.execute();
+            }
+            recount(touched);
+            migrated += batch.size();
+
+            List<Object> ids = batch.stream().map(user -> user.get("_id")).toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                    new Update().unset("followedUsers").unset("followingUsers"), "users");
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated embedded follow lists for {} users into follows", migrated);
+        }
+    }
+
+    private void recount(Set<String> userIds) {
+        for (String userId : userIds) {
+            long followers = mongoTemplate.count(Query.query(Criteria.where("followeeId").is(userId)), Follow.class);
+            long following = mongoTemplate.count(Query.query(Criteria.where("followerId").is(userId)), Follow.class);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().set("followersCount", followers).set("followingCount", following), User.class);
+        }
+    }
+
+    private void upsertEdge(BulkOperations edges, String followerId, String followeeId) {
+        edges.upsert(Query.query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId)),
+                new Update().setOnInsert("createdAt", Instant.now()));
+    }
+}
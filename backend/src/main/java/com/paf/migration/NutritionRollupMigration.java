@@ -0,0 +1,22 @@
+package com.paf.migration;
+
+import com.paf.model.MealPlan;
+import com.paf.service.NutritionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NutritionRollupMigration extends RollupBackfillMigration {
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    public NutritionRollupMigration() {
+        super(MealPlan.class, "nutrition");
+    }
+
+    @Override
+    void rebuild(String userId) {
+        nutritionService.rebuild(userId);
+    }
+}
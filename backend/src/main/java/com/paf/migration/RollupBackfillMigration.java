@@ -0,0 +1,70 @@
+package com.paf.migration;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rebuilds the rollups of every user who has source documents, once. Having a
+ * rollup is no proof of a backfill: the app already serves requests while the
+ * runner works, so a single new entry gives a user a bucket. Progress is kept
+ * in a marker document instead, advanced after each user's rebuild and
+ * completed only after the last one, so a restarted run resumes after the last
+ * user it finished and a completed one is skipped.
+ */
+abstract class RollupBackfillMigration implements ApplicationRunner {
+
+    private static final String MARKERS = "migrations";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Class<?> sourceType;
+    private final String rollupName;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    RollupBackfillMigration(Class<?> sourceType, String rollupName) {
+        this.sourceType = sourceType;
+        this.rollupName = rollupName;
+    }
+
+    abstract void rebuild(String userId);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String markerId = rollupName + "-rollups";
+        Query marker = Query.query(Criteria.where("_id").is(markerId));
+        Document state = mongoTemplate.findOne(marker, Document.class, MARKERS);
+        if (state != null && state.getDate("completedAt") != null) {
+            return;
+        }
+        String after = state == null ? null : state.getString("afterUserId");
+
+        List<String> userIds = mongoTemplate.findDistinct(new Query(), "userId", sourceType, String.class).stream()
+                .filter(Objects::nonNull)
+                .filter(userId -> after == null || userId.compareTo(after) > 0)
+                .sorted()
+                .toList();
+        for (String userId : userIds) {
+            rebuild(userId);
+            mongoTemplate.upsert(marker, Update.update("afterUserId", userId), MARKERS);
+        }
+        mongoTemplate.upsert(marker, Update.update("completedAt", Instant.now()), MARKERS);
+
+        if (!userIds.isEmpty()) {
+            log.info("Built {} rollups for {} users", rollupName, userIds.size());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.paf.migration;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.in;
+
+/**
+ * Rewrites {@code shared_posts} documents that still embed the full post and the
+ * full sharing user: the post becomes a {@code postId} reference and the user is
+ * cut down to {@code {_id, name, profileImage}}. The rewrite runs server-side as
+ * a pipeline update, one batch of ids at a time.
+ */
+@Component
+public class SharePostReferenceMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SharePostReferenceMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<Bson> TO_REFERENCE = List.of(
+            new Document("$set", new Document("postId", new Document("$toString", "$post._id"))
+                    .append("sharedBy", new Document("_id", "$sharedBy._id")
+                            .append("name", "$sharedBy.name")
+                            .append("profileImage", "$sharedBy.profileImage"))),
+            new Document("$unset", "post"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = new Query(Criteria.where("post").exists(true)).limit(BATCH_SIZE);
+        pending.fields().include("_id");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, "shared_posts")).isEmpty()) {
+            List<Object> ids = batch.stream().map(doc -> doc.get("_id")).toList();
+            migrated += mongoTemplate.getCollection("shared_posts")
+                    .updateMany(in("_id", ids), TO_REFERENCE)
+                    .getModifiedCount();
+        }
+
+        if (migrated > 0) {
+            log.info("Converted {} shared posts to post references", migrated);
+        }
+    }
+}
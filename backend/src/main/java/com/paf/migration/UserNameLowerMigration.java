@@ -0,0 +1,53 @@
+package com.paf.migration;
+
+import com.paf.config.UserNameNormalizer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills {@code users.nameLower} for users saved before the directory existed.
+ * Normalization happens in Java so it matches {@link UserNameNormalizer} exactly.
+ */
+@Component
+public class UserNameLowerMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserNameLowerMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = new Query(Criteria.where("nameLower").exists(false)).limit(BATCH_SIZE);
+        pending.fields().include("_id").include("name");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(pending, Document.class, "users")).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "users");
+            for (Document user : batch) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(user.get("_id"))),
+                        Update.update("nameLower", UserNameNormalizer.normalize(user.getString("name"))));
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Backfilled nameLower on {} users", migrated);
+        }
+    }
+}
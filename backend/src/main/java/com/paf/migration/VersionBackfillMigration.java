@@ -0,0 +1,45 @@
+package com.paf.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Starts the {@code @Version} field at 0 on posts and users written before it
+ * existed. Spring Data treats an entity with a null version as new, so saving
+ * one of those documents would otherwise attempt an insert of an existing id,
+ * which is why this runs right after the index bootstrap and before the other
+ * migrations.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class VersionBackfillMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionBackfillMigration.class);
+    private static final List<String> COLLECTIONS = List.of("posts", "users");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String collection : COLLECTIONS) {
+            long migrated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                    Update.update("version", 0L), collection).getModifiedCount();
+            if (migrated > 0) {
+                log.info("Backfilled version on {} documents in {}", migrated, collection);
+            }
+        }
+    }
+}
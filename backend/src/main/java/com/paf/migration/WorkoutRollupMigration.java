@@ -0,0 +1,22 @@
+package com.paf.migration;
+
+import com.paf.model.WorkoutStatus;
+import com.paf.service.WorkoutProgressService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorkoutRollupMigration extends RollupBackfillMigration {
+
+    @Autowired
+    private WorkoutProgressService workoutProgressService;
+
+    public WorkoutRollupMigration() {
+        super(WorkoutStatus.class, "workout");
+    }
+
+    @Override
+    void rebuild(String userId) {
+        workoutProgressService.rebuild(userId);
+    }
+}
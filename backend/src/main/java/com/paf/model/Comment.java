@@ -3,12 +3,22 @@ package com.paf.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
 
 
 @Document(collection = "comments")
+@CompoundIndexes({
+        @CompoundIndex(name = "postId_createdAt_id", def = "{'postId': 1, 'createdAt': -1, '_id': -1}"),
+        // recounts a post's summary without one author's comments when that author is deleted
+        @CompoundIndex(name = "postId_commentById", def = "{'postId': 1, 'commentById': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,10 +29,11 @@ public class Comment {
     private String content;
     private String commentBy;
     private String commentByProfile;
+    @Indexed
     private String commentById;
     private String media;
-    @DateTimeFormat
-    private String createdAt;
+    @CreatedDate
+    private Instant createdAt;
 
 
 }
@@ -0,0 +1,25 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPreview {
+    private String commentId;
+    private String content;
+    private String commentBy;
+    private String commentById;
+    private String commentByProfile;
+    private String media;
+    private Instant createdAt;
+
+    public static CommentPreview of(Comment comment) {
+        return new CommentPreview(comment.getId(), comment.getContent(), comment.getCommentBy(),
+                comment.getCommentById(), comment.getCommentByProfile(), comment.getMedia(), comment.getCreatedAt());
+    }
+}
@@ -0,0 +1,48 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Document(collection = "deletion_jobs")
+@CompoundIndex(name = "status_heartbeatAt", def = "{'status': 1, 'heartbeatAt': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJob {
+
+    public enum Target { POST, USER }
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    @Id
+    private String id;
+    private Target target;
+    private String targetId;
+    private Status status;
+    // index of the next step to run; steps before it have finished
+    private int step;
+    private Map<String, Long> deleted = new LinkedHashMap<>();
+    private int attempts;
+    private String error;
+    private Instant createdAt;
+    private Instant heartbeatAt;
+    // finished jobs are kept for a week so their progress can still be inspected
+    @Indexed(expireAfter = "7d")
+    private Instant finishedAt;
+
+    public DeletionJob(Target target, String targetId) {
+        this.target = target;
+        this.targetId = targetId;
+        this.status = Status.PENDING;
+        this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,13 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentVersion {
+    private String id;
+    private Long version;
+}
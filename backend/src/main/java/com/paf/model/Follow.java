@@ -0,0 +1,28 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        @CompoundIndex(name = "follower_createdAt", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "followee_createdAt", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Instant createdAt;
+}
@@ -1,13 +1,17 @@
 package com.paf.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Document(collection = "mealPlans")
+@CompoundIndex(name = "userId_date", def = "{'userId': 1, 'date': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +27,7 @@ public class MealPlan {
     private String description;
     private int calories;
     private int carbs;
-    private String date;
+    private LocalDate date;
     private String username;
     private String userProfile;
 
@@ -0,0 +1,38 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+/**
+ * Macro totals of one user's {@link MealPlan} entries for a day or an ISO week,
+ * kept current with {@code $inc} on every meal plan write.
+ */
+@Document(collection = "nutrition_rollups")
+@CompoundIndex(name = "userId_granularity_periodStart", def = "{'userId': 1, 'granularity': 1, 'periodStart': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionRollup {
+
+    // userId:granularity:periodStart, so increments can upsert without a lookup
+    @Id
+    private String id;
+    private String userId;
+    private RollupGranularity granularity;
+    private LocalDate periodStart;
+    private int meals;
+    private long protein;
+    private long fats;
+    private long carbs;
+    private long calories;
+
+    public static String id(String userId, RollupGranularity granularity, LocalDate periodStart) {
+        return userId + ":" + granularity + ":" + periodStart;
+    }
+}
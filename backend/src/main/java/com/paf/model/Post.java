@@ -5,12 +5,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.List;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,13 +33,19 @@ public class Post {
     private String description;
     private List<String>  images;
     private String video;
+    @LastModifiedDate
+    private Instant date;
     @CreatedDate
-    private String date;
+    private Instant createdAt;
     private int likeCount;
     private List<String> likedBy;
     @DBRef
     private List<Comment> comments;
+    private int commentCount;
+    private List<CommentPreview> latestComments;
     private List<String> sharedBy;
+    @Version
+    private Long version;
 
     public List<String> getLikedBy() {
         return likedBy;
@@ -0,0 +1,25 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummary {
+    private String id;
+    private String userId;
+    private String username;
+    private String userProfile;
+    private String title;
+    private String description;
+    private List<String> images;
+    private String video;
+    private Instant date;
+    private Instant createdAt;
+    private int likeCount;
+}
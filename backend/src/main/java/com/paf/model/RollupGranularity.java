@@ -0,0 +1,66 @@
+package com.paf.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bucket sizes of the pre-aggregated rollup collections. Weeks are ISO weeks
+ * starting on Monday.
+ */
+public enum RollupGranularity {
+    DAY, WEEK, MONTH;
+
+    private static final int MAX_PERIODS = 400;
+
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    public LocalDate periodEnd(LocalDate periodStart) {
+        return next(periodStart).minusDays(1);
+    }
+
+    /**
+     * Start dates of every period from the one containing {@code from} through the
+     * one containing {@code to}, oldest first. Without {@code to} the range ends
+     * with the current period; without {@code from} it spans {@code defaultPeriods}.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to} or the
+     *         range spans more than 400 periods
+     */
+    public List<LocalDate> periods(LocalDate from, LocalDate to, int defaultPeriods) {
+        LocalDate last = periodStart(to != null ? to : LocalDate.now());
+        LocalDate first = from != null ? periodStart(from) : last;
+        if (from == null) {
+            for (int i = 1; i < defaultPeriods; i++) {
+                first = periodStart(first.minusDays(1));
+            }
+        }
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        List<LocalDate> periods = new ArrayList<>();
+        for (LocalDate period = first; !period.isAfter(last); period = next(period)) {
+            if (periods.size() == MAX_PERIODS) {
+                throw new IllegalArgumentException("range spans more than " + MAX_PERIODS + " periods");
+            }
+            periods.add(period);
+        }
+        return periods;
+    }
+}
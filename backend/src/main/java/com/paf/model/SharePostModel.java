@@ -3,19 +3,35 @@ package com.paf.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document(collection = "shared_posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SharePostModel {
     @Id
     private String id;
-    private User sharedBy;
+    private UserSummary sharedBy;
     private String userId;
-    private Post post;
+    @Indexed
+    private String postId;
+    @Transient
+    private PostSummary post;
     private String description;
     private String shared;
+    @CreatedDate
+    private Instant createdAt;
 }
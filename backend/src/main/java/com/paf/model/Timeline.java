@@ -0,0 +1,24 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * Per-user home timeline, keyed by the owner's user id. Entries are kept newest
+ * first and capped by the {@code $slice} of every push, so the document size is
+ * bounded no matter how many followed users post.
+ */
+@Document(collection = "timelines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Timeline {
+    @Id
+    private String userId;
+    private List<TimelineEntry> entries;
+}
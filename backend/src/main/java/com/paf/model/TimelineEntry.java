@@ -0,0 +1,16 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntry {
+    private String postId;
+    private String authorId;
+    private Instant createdAt;
+}
@@ -1,12 +1,20 @@
 package com.paf.model;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.List;
 
 @Document(collection = "users")
+@CompoundIndexes({
+        @CompoundIndex(name = "nameLower_id", def = "{'nameLower': 1, '_id': 1}"),
+        @CompoundIndex(name = "active_nameLower_id", def = "{'active': 1, 'nameLower': 1, '_id': 1}"),
+        @CompoundIndex(name = "source_nameLower_id", def = "{'source': 1, 'nameLower': 1, '_id': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,14 +24,17 @@ public class User {
     private String id;
     
     private String name;
+    private String nameLower;
+    @Indexed(unique = true)
     private String email;
     private String profileImage;
     private String mobileNumber;
     private String password;
     private RegistrationSource source;
+    @Indexed
     private int followersCount;
     private int followingCount;
-    private List<String> followedUsers;
-    private List<String> followingUsers;
     private boolean active;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,18 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private String id;
+    private String name;
+    private String profileImage;
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getProfileImage());
+    }
+}
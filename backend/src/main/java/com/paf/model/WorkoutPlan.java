@@ -1,12 +1,15 @@
 package com.paf.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Document(collection = "workoutPlans")
 @Data
 @NoArgsConstructor
@@ -15,6 +18,7 @@ public class WorkoutPlan {
 
     @Id
     private String workoutPlanId;
+    @Indexed
     private String userId;
     private String workoutPlanName;
     private String exercises;
@@ -22,7 +26,7 @@ public class WorkoutPlan {
     private int repetitions;
     private String routine;
     private String description;
-    private String date;
+    private LocalDate date;
     private String username;
     private String userProfile;
 }
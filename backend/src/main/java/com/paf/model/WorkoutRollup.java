@@ -0,0 +1,45 @@
+package com.paf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+/**
+ * Running totals of one user's {@link WorkoutStatus} entries for a day, an ISO
+ * week or a calendar month. They are adjusted with {@code $inc} whenever a status
+ * is created, edited or deleted, so the progress dashboards read one document
+ * per bucket instead of every status in the range.
+ */
+@Document(collection = "workout_rollups")
+@CompoundIndex(name = "userId_granularity_periodStart", def = "{'userId': 1, 'granularity': 1, 'periodStart': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutRollup {
+
+    // userId:granularity:periodStart, so increments can upsert without a lookup
+    @Id
+    private String id;
+    private String userId;
+    private RollupGranularity granularity;
+    private LocalDate periodStart;
+    private int count;
+    private long distanceSum;
+    private int distanceMax;
+    private long pushUpsSum;
+    private int pushUpsMax;
+    // weight is optional on a status, so its average is taken over the entries that recorded one
+    private int weightCount;
+    private long weightSum;
+    private Integer weightMin;
+    private Integer weightMax;
+
+    public static String id(String userId, RollupGranularity granularity, LocalDate periodStart) {
+        return userId + ":" + granularity + ":" + periodStart;
+    }
+}
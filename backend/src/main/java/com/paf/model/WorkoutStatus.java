@@ -1,13 +1,17 @@
 package com.paf.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 
 @Document(collection = "workoutStatus")
+@CompoundIndex(name = "userId_date", def = "{'userId': 1, 'date': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +25,7 @@ public class WorkoutStatus {
     private int pushUps;
     private int weight;
     private String description;
-    private String date;
+    private LocalDate date;
     private String username;
     private String userProfile;
 
@@ -1,10 +1,35 @@
 package com.paf.repo;
 
 import com.paf.model.Comment;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends MongoRepository<Comment, String> {
     List<Comment> findByPostId(String postId);
+
+    List<Comment> findByPostIdIn(Collection<String> postIds);
+
+    List<Comment> findByCommentById(String commentById, Pageable pageable);
+
+    List<Comment> findByPostId(String postId, Pageable pageable);
+
+    List<Comment> findTop3ByPostIdOrderByCreatedAtDescIdDesc(String postId);
+
+    List<Comment> findTop3ByPostIdAndCommentByIdNotOrderByCreatedAtDescIdDesc(String postId, String commentById);
+
+    long countByPostIdAndCommentByIdNot(String postId, String commentById);
+
+    @Query("{ 'postId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<Comment> findPageBefore(String postId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    @Query("{ 'postId': ?0, '$or': [ { 'createdAt': { '$gt': ?1 } }, { 'createdAt': ?1, '_id': { '$gt': ?2 } } ] }")
+    List<Comment> findPageAfter(String postId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    long deleteByIdAndPostId(String id, String postId);
 }
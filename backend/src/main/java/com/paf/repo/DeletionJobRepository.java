@@ -0,0 +1,11 @@
+package com.paf.repo;
+
+import com.paf.model.DeletionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface DeletionJobRepository extends MongoRepository<DeletionJob, String>, DeletionJobRepositoryCustom {
+    List<DeletionJob> findAllBy(Pageable pageable);
+}
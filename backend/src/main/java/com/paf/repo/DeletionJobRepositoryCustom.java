@@ -0,0 +1,20 @@
+package com.paf.repo;
+
+import com.paf.model.DeletionJob;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface DeletionJobRepositoryCustom {
+    DeletionJob claim(String jobId, Instant staleBefore, int maxAttempts);
+
+    List<String> findClaimableIds(Instant staleBefore, int maxAttempts);
+
+    void recordBatch(String jobId, String collection, long count);
+
+    void advance(String jobId, int nextStep);
+
+    void complete(String jobId);
+
+    void fail(String jobId, String error);
+}
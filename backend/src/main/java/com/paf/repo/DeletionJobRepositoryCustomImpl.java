@@ -0,0 +1,79 @@
+package com.paf.repo;
+
+import com.paf.model.DeletionJob;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+public class DeletionJobRepositoryCustomImpl implements DeletionJobRepositoryCustom {
+
+    private static final int CLAIM_SCAN_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public DeletionJobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public DeletionJob claim(String jobId, Instant staleBefore, int maxAttempts) {
+        // only one worker wins: the filter stops matching once status is RUNNING with a fresh heartbeat
+        Query query = Query.query(Criteria.where("_id").is(jobId).andOperator(claimable(staleBefore, maxAttempts)));
+        Update update = new Update()
+                .set("status", DeletionJob.Status.RUNNING)
+                .set("heartbeatAt", Instant.now())
+                .unset("error")
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), DeletionJob.class);
+    }
+
+    @Override
+    public List<String> findClaimableIds(Instant staleBefore, int maxAttempts) {
+        Query query = Query.query(claimable(staleBefore, maxAttempts)).limit(CLAIM_SCAN_LIMIT);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, DeletionJob.class).stream()
+                .map(DeletionJob::getId)
+                .toList();
+    }
+
+    @Override
+    public void recordBatch(String jobId, String collection, long count) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().inc("deleted." + collection, count).set("heartbeatAt", Instant.now()),
+                DeletionJob.class);
+    }
+
+    @Override
+    public void advance(String jobId, int nextStep) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().set("step", nextStep).set("heartbeatAt", Instant.now()),
+                DeletionJob.class);
+    }
+
+    @Override
+    public void complete(String jobId) {
+        Instant now = Instant.now();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().set("status", DeletionJob.Status.DONE).set("heartbeatAt", now).set("finishedAt", now),
+                DeletionJob.class);
+    }
+
+    @Override
+    public void fail(String jobId, String error) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().set("status", DeletionJob.Status.FAILED).set("error", error).set("heartbeatAt", Instant.now()),
+                DeletionJob.class);
+    }
+
+    private static Criteria claimable(Instant staleBefore, int maxAttempts) {
+        return new Criteria().orOperator(
+                Criteria.where("status").is(DeletionJob.Status.PENDING),
+                Criteria.where("status").is(DeletionJob.Status.FAILED).and("attempts").lt(maxAttempts),
+                Criteria.where("status").is(DeletionJob.Status.RUNNING).and("heartbeatAt").lt(staleBefore));
+    }
+}
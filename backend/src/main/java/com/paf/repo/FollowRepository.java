@@ -0,0 +1,35 @@
+package com.paf.repo;
+
+import com.paf.model.Follow;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface FollowRepository extends MongoRepository<Follow, String> {
+    boolean existsByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    long deleteByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    List<Follow> findByFolloweeId(String followeeId, Pageable pageable);
+
+    List<Follow> findByFollowerId(String followerId, Pageable pageable);
+
+    @Query(value = "{ 'followeeId': ?0 }", fields = "{ 'followerId': 1 }")
+    Stream<Follow> streamByFolloweeId(String followeeId);
+
+    List<Follow> findByFollowerIdAndFolloweeIdIn(String followerId, Collection<String> followeeIds);
+
+    @Query("{ 'followeeId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<Follow> findFollowersAfter(String followeeId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    @Query("{ 'followerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<Follow> findFollowingAfter(String followerId, Instant createdAt, ObjectId id, Pageable pageable);
+}
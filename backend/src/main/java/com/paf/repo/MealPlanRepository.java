@@ -5,6 +5,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface MealPlanRepository extends MongoRepository<MealPlan, String> {
+public interface MealPlanRepository extends MongoRepository<MealPlan, String>, MealPlanRepositoryCustom {
 
 }
@@ -0,0 +1,27 @@
+package com.paf.repo;
+
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+
+import java.util.List;
+
+public interface MealPlanRepositoryCustom {
+
+    /**
+     * Sums a user's macros per day with an aggregation over the {@code (userId, date)}
+     * index, ordered by day. Only {@code periodStart} and the totals are populated.
+     */
+    List<NutritionRollup> sumMacrosByDay(String userId);
+
+    /**
+     * Replaces a stored meal plan and returns the one it replaced, or {@code null} if
+     * it does not exist. Concurrent edits each get the version they overwrote.
+     */
+    MealPlan replace(MealPlan mealPlan);
+
+    /**
+     * Removes a meal plan and returns it, or {@code null} if it was already gone, so
+     * only one of several concurrent deletes sees the removed document.
+     */
+    MealPlan removeById(String mealPlanId);
+}
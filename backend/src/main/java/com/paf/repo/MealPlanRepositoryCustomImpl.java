@@ -0,0 +1,45 @@
+package com.paf.repo;
+
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class MealPlanRepositoryCustomImpl implements MealPlanRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MealPlanRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<NutritionRollup> sumMacrosByDay(String userId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId).and("date").ne(null)),
+                Aggregation.group("date")
+                        .count().as("meals")
+                        .sum("protein").as("protein")
+                        .sum("fats").as("fats")
+                        .sum("carbs").as("carbs")
+                        .sum("calories").as("calories"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.project("meals", "protein", "fats", "carbs", "calories").and("periodStart").previousOperation());
+        return mongoTemplate.aggregate(aggregation, MealPlan.class, NutritionRollup.class).getMappedResults();
+    }
+
+    @Override
+    public MealPlan replace(MealPlan mealPlan) {
+        return mongoTemplate.findAndReplace(Query.query(Criteria.where("_id").is(mealPlan.getMealPlanId())), mealPlan);
+    }
+
+    @Override
+    public MealPlan removeById(String mealPlanId) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(mealPlanId)), MealPlan.class);
+    }
+}
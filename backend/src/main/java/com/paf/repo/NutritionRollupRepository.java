@@ -0,0 +1,18 @@
+package com.paf.repo;
+
+import com.paf.model.NutritionRollup;
+import com.paf.model.RollupGranularity;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface NutritionRollupRepository extends MongoRepository<NutritionRollup, String>, NutritionRollupRepositoryCustom {
+
+    List<NutritionRollup> findByUserIdAndGranularityAndPeriodStartBetween(String userId, RollupGranularity granularity,
+            Range<LocalDate> periodStart, Sort sort);
+}
@@ -0,0 +1,20 @@
+package com.paf.repo;
+
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import com.paf.model.RollupGranularity;
+
+import java.util.List;
+
+public interface NutritionRollupRepositoryCustom {
+
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) one meal plan's macros
+     * from the bucket containing its date and returns the bucket as updated.
+     */
+    NutritionRollup apply(RollupGranularity granularity, MealPlan mealPlan, int sign);
+
+    void deleteIfEmpty(String rollupId);
+
+    void replaceAll(String userId, List<NutritionRollup> rollups);
+}
@@ -0,0 +1,53 @@
+package com.paf.repo;
+
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import com.paf.model.RollupGranularity;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class NutritionRollupRepositoryCustomImpl implements NutritionRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public NutritionRollupRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public NutritionRollup apply(RollupGranularity granularity, MealPlan mealPlan, int sign) {
+        LocalDate periodStart = granularity.periodStart(mealPlan.getDate());
+        String id = NutritionRollup.id(mealPlan.getUserId(), granularity, periodStart);
+        Update update = new Update()
+                .setOnInsert("userId", mealPlan.getUserId())
+                .setOnInsert("granularity", granularity)
+                .setOnInsert("periodStart", periodStart)
+                .inc("meals", sign)
+                .inc("protein", (long) sign * mealPlan.getProtein())
+                .inc("fats", (long) sign * mealPlan.getFats())
+                .inc("carbs", (long) sign * mealPlan.getCarbs())
+                .inc("calories", (long) sign * mealPlan.getCalories());
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), NutritionRollup.class);
+    }
+
+    @Override
+    public void deleteIfEmpty(String rollupId) {
+        // Deltas of racing writes can land in any order, so the meal count alone may pass
+        // through zero with other deltas still applied; with every total at zero the
+        // bucket is indistinguishable from a missing one and safe to drop.
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(rollupId).and("meals").is(0)
+                .and("protein").is(0).and("fats").is(0).and("carbs").is(0).and("calories").is(0)), NutritionRollup.class);
+    }
+
+    @Override
+    public void replaceAll(String userId, List<NutritionRollup> rollups) {
+        RollupWrites.replaceAll(mongoTemplate, NutritionRollup.class, userId, rollups, NutritionRollup::getId);
+    }
+}
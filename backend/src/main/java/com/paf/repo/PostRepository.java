@@ -1,14 +1,41 @@
 package com.paf.repo;
 
+import com.paf.model.DocumentVersion;
 import com.paf.model.Post;
+import com.paf.model.PostSummary;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PostRepository extends MongoRepository<Post, String> {
+public interface PostRepository extends MongoRepository<Post, String>, PostRepositoryCustom {
     Post findPostById(String id);
 
     List<Post> findByUserId(String userId);
-}
\ No newline at end of file
+
+    List<PostSummary> findByIdIn(Collection<String> ids);
+
+    List<Post> findByUserIdInAndCreatedAtLessThanEqual(Collection<String> userIds, Instant createdAt, Pageable pageable);
+
+    List<Post> findAllBy(Pageable pageable);
+
+    @Query("{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }")
+    List<Post> findPageAfter(Instant createdAt, ObjectId id, Pageable pageable);
+
+    List<DocumentVersion> findVersionsBy(Sort sort);
+
+    List<DocumentVersion> findVersionsBy(Pageable pageable);
+
+    @Query(value = "{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = "{ 'version': 1 }")
+    List<DocumentVersion> findVersionsPageAfter(Instant createdAt, ObjectId id, Pageable pageable);
+
+    List<DocumentVersion> findVersionsByIdIn(Collection<String> ids);
+}
@@ -0,0 +1,23 @@
+package com.paf.repo;
+
+import com.paf.model.CommentPreview;
+import com.paf.model.Post;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostRepositoryCustom {
+    Post toggleLike(String postId, String userId);
+
+    Post updateContent(String postId, String title, String description, List<String> images, String video);
+
+    void addCommentPreview(String postId, CommentPreview preview, int previewSize);
+
+    Post removeCommentPreviews(String postId, Collection<String> commentIds);
+
+    void updateCommentPreview(String postId, CommentPreview preview);
+
+    void replaceCommentPreviews(String postId, List<CommentPreview> previews);
+
+    void setCommentSummary(String postId, long commentCount, List<CommentPreview> previews);
+}
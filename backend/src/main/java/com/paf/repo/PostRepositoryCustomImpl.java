@@ -0,0 +1,112 @@
+package com.paf.repo;
+
+import com.mongodb.client.result.UpdateResult;
+import com.paf.model.CommentPreview;
+import com.paf.model.Post;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Like/unlike as single-document conditional updates. The filter on likedBy
+ * decides which branch applies, so likedBy and likeCount always move together
+ * and concurrent toggles never overwrite each other.
+ */
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    public PostRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Post toggleLike(String postId, String userId) {
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+
+        // Between the two attempts another request by the same user can flip the
+        // state, in which case neither filter matches and we simply try again.
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Post liked = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(postId).and("likedBy").ne(userId)),
+                    new Update().addToSet("likedBy", userId).inc("likeCount", 1),
+                    returnNew, Post.class);
+            if (liked != null) {
+                return liked;
+            }
+
+            Post unliked = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(postId).and("likedBy").is(userId)),
+                    new Update().pull("likedBy", userId).inc("likeCount", -1),
+                    returnNew, Post.class);
+            if (unliked != null) {
+                return unliked;
+            }
+
+            if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(postId)), Post.class)) {
+                return null;
+            }
+        }
+        throw new IllegalStateException("Could not toggle like on post " + postId);
+    }
+
+    // a $set of the edited fields only, so an edit never races a like or comment for the
+    // version; auditing does not see the update, so the modified date is stamped here
+    @Override
+    public Post updateContent(String postId, String title, String description, List<String> images, String video) {
+        Update update = new Update().set("title", title).set("description", description)
+                .set("images", images).set("video", video).set("date", Instant.now());
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(postId)), update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    @Override
+    public void addCommentPreview(String postId, CommentPreview preview, int previewSize) {
+        Update update = new Update().inc("commentCount", 1);
+        update.push("latestComments").atPosition(Update.Position.FIRST).slice(previewSize).each(preview);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)), update, Post.class);
+    }
+
+    @Override
+    public Post removeCommentPreviews(String postId, Collection<String> commentIds) {
+        Query query = Query.query(Criteria.where("_id").is(postId));
+        query.fields().include("commentCount").include("latestComments");
+        Update update = new Update().inc("commentCount", -commentIds.size())
+                .pull("latestComments", new Document("commentId", new Document("$in", commentIds)));
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    @Override
+    public void updateCommentPreview(String postId, CommentPreview preview) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId).and("latestComments.commentId").is(preview.getCommentId())),
+                new Update().set("latestComments.$", preview),
+                Post.class);
+        if (result.getMatchedCount() == 0) {
+            // the edit still shows in the full comment list, so the post's ETag has to change
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)), new Update().inc("version", 1), Post.class);
+        }
+    }
+
+    @Override
+    public void replaceCommentPreviews(String postId, List<CommentPreview> previews) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update().set("latestComments", previews), Post.class);
+    }
+
+    @Override
+    public void setCommentSummary(String postId, long commentCount, List<CommentPreview> previews) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update().set("commentCount", commentCount).set("latestComments", previews), Post.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.paf.repo;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes shared by the per-user rollup collections, whose documents are keyed
+ * by {@code userId:granularity:periodStart}.
+ */
+final class RollupWrites {
+
+    private RollupWrites() {
+    }
+
+    /**
+     * Makes {@code rollups} the user's complete set of buckets. Each one replaces
+     * its stored counterpart in place and buckets missing from the set are removed
+     * afterwards. Deleting everything first and inserting again would race the
+     * {@code $inc} upserts of concurrent writes, which recreate a bucket between
+     * the two steps and turn the insert into a duplicate key error.
+     */
+    static <T> void replaceAll(MongoTemplate mongoTemplate, Class<T> type, String userId, List<T> rollups,
+            Function<T, String> id) {
+        if (!rollups.isEmpty()) {
+            BulkOperations replacements = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            for (T rollup : rollups) {
+                replacements.replaceOne(Query.query(Criteria.where("_id").is(id.apply(rollup))), rollup,
+                        FindAndReplaceOptions.options().upsert());
+            }
+            replacements.execute();
+        }
+        List<String> ids = rollups.stream().map(id).toList();
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId).and("_id").nin(ids)), type);
+    }
+}
@@ -1,15 +1,39 @@
 package com.paf.repo;
 
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.paf.model.ShareReference;
 import com.paf.model.SharePostModel;
 
+import java.time.Instant;
 import java.util.List;
 
 
 @Repository
 public interface SharePostRepository extends MongoRepository<SharePostModel, String> {
-    List<SharePostModel> findByUserId(String userId);
+    List<SharePostModel> findByUserId(String userId, Sort sort);
+
+    List<SharePostModel> findAllBy(Pageable pageable);
+
+    List<SharePostModel> findByUserId(String userId, Pageable pageable);
+
+    @Query("{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }")
+    List<SharePostModel> findPageAfter(Instant createdAt, ObjectId id, Pageable pageable);
+
+    List<ShareReference> findReferencesBy(Sort sort);
+
+    List<ShareReference> findReferencesBy(Pageable pageable);
+
+    @Query(value = "{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = "{ 'postId': 1 }")
+    List<ShareReference> findReferencesPageAfter(Instant createdAt, ObjectId id, Pageable pageable);
+
+    @Query("{ 'userId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<SharePostModel> findByUserIdPageAfter(String userId, Instant createdAt, ObjectId id, Pageable pageable);
 }
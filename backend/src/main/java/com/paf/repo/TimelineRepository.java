@@ -0,0 +1,9 @@
+package com.paf.repo;
+
+import com.paf.model.Timeline;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TimelineRepository extends MongoRepository<Timeline, String>, TimelineRepositoryCustom {
+}
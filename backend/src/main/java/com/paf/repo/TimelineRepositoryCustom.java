@@ -0,0 +1,13 @@
+package com.paf.repo;
+
+import com.paf.model.TimelineEntry;
+
+import java.util.Collection;
+
+public interface TimelineRepositoryCustom {
+    void pushEntry(Collection<String> userIds, TimelineEntry entry, int maxEntries);
+
+    void removeAuthor(String userId, String authorId);
+
+    void removeAuthor(Collection<String> userIds, String authorId);
+}
@@ -0,0 +1,57 @@
+package com.paf.repo;
+
+import com.paf.model.Timeline;
+import com.paf.model.TimelineEntry;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+public class TimelineRepositoryCustomImpl implements TimelineRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public TimelineRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void pushEntry(Collection<String> userIds, TimelineEntry entry, int maxEntries) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Update push = new Update();
+        push.push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .slice(maxEntries)
+                .each(entry);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+        for (String userId : userIds) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(userId)), push);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void removeAuthor(String userId, String authorId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                new Update().pull("entries", new Document("authorId", authorId)),
+                Timeline.class);
+    }
+
+    @Override
+    public void removeAuthor(Collection<String> userIds, String authorId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(userIds)),
+                new Update().pull("entries", new Document("authorId", authorId)),
+                Timeline.class);
+    }
+}
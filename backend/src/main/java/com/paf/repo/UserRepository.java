@@ -1,21 +1,28 @@
 package com.paf.repo;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.paf.DTO.UserDTO;
 import com.paf.model.User;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     User findByEmail(String email);
 
     Optional<User> findById(String userId);
 
     boolean existsByEmail(String email);
 
-    List<User> findByActiveTrue();
+    List<UserDTO> findAllProjectedBy();
+
+    List<UserDTO> findByActiveTrue();
+
+    @Query(value = "{ 'followersCount': { '$gte': ?0 } }", fields = "{ '_id': 1 }")
+    List<User> findIdsByFollowersCountAtLeast(int followersCount);
 }
 
@@ -0,0 +1,18 @@
+package com.paf.repo;
+
+import com.paf.DTO.UserDTO;
+import com.paf.model.RegistrationSource;
+import com.paf.model.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    void adjustFollowCounts(String followerId, String followeeId, int delta);
+
+    User setActive(String userId, boolean active);
+
+    User updateProfile(String userId, String name, String email, String password, String profileImage);
+
+    List<UserDTO> findDirectoryPage(String namePrefix, Boolean active, RegistrationSource source,
+                                    String afterName, String afterId, int limit);
+}
@@ -0,0 +1,88 @@
+package com.paf.repo;
+
+import com.paf.DTO.UserDTO;
+import com.paf.config.UserNameNormalizer;
+import com.paf.model.RegistrationSource;
+import com.paf.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final Pattern NON_WORD = Pattern.compile("\\W");
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void adjustFollowCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followerId)),
+                new Update().inc("followingCount", delta), User.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followeeId)),
+                new Update().inc("followersCount", delta), User.class);
+    }
+
+    // an atomic $set, so logging in never races a concurrent follow for the version
+    @Override
+    public User setActive(String userId, boolean active) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+                Update.update("active", active), FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    // null leaves a field as it is; the save callback is bypassed, so nameLower is set here
+    @Override
+    public User updateProfile(String userId, String name, String email, String password, String profileImage) {
+        Update update = new Update();
+        if (name != null) {
+            update.set("name", name).set("nameLower", UserNameNormalizer.normalize(name));
+        }
+        if (email != null) {
+            update.set("email", email);
+        }
+        if (password != null) {
+            update.set("password", password);
+        }
+        if (profileImage != null) {
+            update.set("profileImage", profileImage);
+        }
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    @Override
+    public List<UserDTO> findDirectoryPage(String namePrefix, Boolean active, RegistrationSource source,
+                                           String afterName, String afterId, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (active != null) {
+            criteria.add(Criteria.where("active").is(active));
+        }
+        if (source != null) {
+            criteria.add(Criteria.where("source").is(source));
+        }
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            // an anchored, case-sensitive regex on the normalized field is an index range scan
+            criteria.add(Criteria.where("nameLower").regex("^" + NON_WORD.matcher(namePrefix).replaceAll("\\\\$0")));
+        }
+        if (afterId != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("nameLower").gt(afterName),
+                    Criteria.where("nameLower").is(afterName).and("_id").gt(new ObjectId(afterId))));
+        }
+
+        Query query = criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+        query.with(Sort.by(Sort.Direction.ASC, "nameLower", "id")).limit(limit);
+        return mongoTemplate.query(User.class).as(UserDTO.class).matching(query).all();
+    }
+}
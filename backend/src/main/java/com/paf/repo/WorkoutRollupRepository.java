@@ -0,0 +1,20 @@
+package com.paf.repo;
+
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkoutRollupRepository extends MongoRepository<WorkoutRollup, String>, WorkoutRollupRepositoryCustom {
+
+    List<WorkoutRollup> findByUserIdAndGranularityAndPeriodStartBetween(String userId, RollupGranularity granularity,
+            Range<LocalDate> periodStart, Sort sort);
+
+    List<WorkoutRollup> findByUserIdAndGranularity(String userId, RollupGranularity granularity, Sort sort);
+}
@@ -0,0 +1,22 @@
+package com.paf.repo;
+
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+
+import java.util.List;
+
+public interface WorkoutRollupRepositoryCustom {
+
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) one status from the
+     * bucket containing its date and returns the bucket as updated.
+     */
+    WorkoutRollup apply(RollupGranularity granularity, WorkoutStatus status, int sign);
+
+    void setExtremes(String rollupId, int distanceMax, int pushUpsMax, Integer weightMin, Integer weightMax);
+
+    void deleteIfEmpty(String rollupId);
+
+    void replaceAll(String userId, List<WorkoutRollup> rollups);
+}
@@ -0,0 +1,75 @@
+package com.paf.repo;
+
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class WorkoutRollupRepositoryCustomImpl implements WorkoutRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public WorkoutRollupRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public WorkoutRollup apply(RollupGranularity granularity, WorkoutStatus status, int sign) {
+        LocalDate periodStart = granularity.periodStart(status.getDate());
+        String id = WorkoutRollup.id(status.getUserId(), granularity, periodStart);
+        boolean hasWeight = status.getWeight() > 0;
+
+        Update update = new Update()
+                .setOnInsert("userId", status.getUserId())
+                .setOnInsert("granularity", granularity)
+                .setOnInsert("periodStart", periodStart)
+                .inc("count", sign)
+                .inc("distanceSum", (long) sign * status.getDistance())
+                .inc("pushUpsSum", (long) sign * status.getPushUps());
+        if (hasWeight) {
+            update.inc("weightCount", sign).inc("weightSum", (long) sign * status.getWeight());
+        }
+        // extremes only ever grow here; removals that touch them are recomputed by the caller
+        if (sign > 0) {
+            update.max("distanceMax", status.getDistance()).max("pushUpsMax", status.getPushUps());
+            if (hasWeight) {
+                update.min("weightMin", status.getWeight()).max("weightMax", status.getWeight());
+            }
+        }
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), WorkoutRollup.class);
+    }
+
+    @Override
+    public void setExtremes(String rollupId, int distanceMax, int pushUpsMax, Integer weightMin, Integer weightMax) {
+        Update update = new Update().set("distanceMax", distanceMax).set("pushUpsMax", pushUpsMax);
+        if (weightMin == null) {
+            update.unset("weightMin").unset("weightMax");
+        } else {
+            update.set("weightMin", weightMin).set("weightMax", weightMax);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rollupId)), update, WorkoutRollup.class);
+    }
+
+    @Override
+    public void deleteIfEmpty(String rollupId) {
+        // Deltas of racing writes can land in any order, so the count alone may pass
+        // through zero with other deltas still applied; with every sum at zero the
+        // bucket is indistinguishable from a missing one and safe to drop.
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(rollupId).and("count").is(0)
+                .and("distanceSum").is(0).and("pushUpsSum").is(0)
+                .and("weightCount").in(0, null).and("weightSum").in(0, null)), WorkoutRollup.class);
+    }
+
+    @Override
+    public void replaceAll(String userId, List<WorkoutRollup> rollups) {
+        RollupWrites.replaceAll(mongoTemplate, WorkoutRollup.class, userId, rollups, WorkoutRollup::getId);
+    }
+}
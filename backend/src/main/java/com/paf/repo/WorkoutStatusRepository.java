@@ -5,7 +5,12 @@ import org.springframework.stereotype.Repository;
 
 import com.paf.model.WorkoutStatus;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
-public interface WorkoutStatusRepository extends MongoRepository<WorkoutStatus, String> {
+public interface WorkoutStatusRepository extends MongoRepository<WorkoutStatus, String>, WorkoutStatusRepositoryCustom {
+
+    List<WorkoutStatus> findByUserIdAndDate(String userId, LocalDate date);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.paf.repo;
+
+import com.paf.model.WorkoutStatus;
+
+public interface WorkoutStatusRepositoryCustom {
+
+    /**
+     * Replaces a stored status and returns the one it replaced, or {@code null} if
+     * it does not exist. Concurrent edits each get the version they overwrote.
+     */
+    WorkoutStatus replace(WorkoutStatus workoutStatus);
+
+    /**
+     * Removes a status and returns it, or {@code null} if it was already gone, so
+     * only one of several concurrent deletes sees the removed document.
+     */
+    WorkoutStatus removeById(String statusId);
+}
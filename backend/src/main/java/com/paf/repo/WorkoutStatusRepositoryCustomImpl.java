@@ -0,0 +1,25 @@
+package com.paf.repo;
+
+import com.paf.model.WorkoutStatus;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class WorkoutStatusRepositoryCustomImpl implements WorkoutStatusRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public WorkoutStatusRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public WorkoutStatus replace(WorkoutStatus workoutStatus) {
+        return mongoTemplate.findAndReplace(Query.query(Criteria.where("_id").is(workoutStatus.getStatusId())), workoutStatus);
+    }
+
+    @Override
+    public WorkoutStatus removeById(String statusId) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(statusId)), WorkoutStatus.class);
+    }
+}
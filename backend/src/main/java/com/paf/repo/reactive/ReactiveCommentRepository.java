@@ -0,0 +1,23 @@
+package com.paf.repo.reactive;
+
+import com.paf.model.Comment;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<Comment, String> {
+    Flux<Comment> findByPostId(String postId, Sort sort);
+
+    Flux<Comment> findByPostId(String postId, Pageable pageable);
+
+    @Query("{ 'postId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    Flux<Comment> findPageBefore(String postId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    @Query("{ 'postId': ?0, '$or': [ { 'createdAt': { '$gt': ?1 } }, { 'createdAt': ?1, '_id': { '$gt': ?2 } } ] }")
+    Flux<Comment> findPageAfter(String postId, Instant createdAt, ObjectId id, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.paf.repo.reactive;
+
+import com.paf.model.Post;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface ReactivePostRepository extends ReactiveMongoRepository<Post, String> {
+    Flux<Post> findAllBy(Pageable pageable);
+
+    @Query("{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }")
+    Flux<Post> findPageAfter(Instant createdAt, ObjectId id, Pageable pageable);
+}
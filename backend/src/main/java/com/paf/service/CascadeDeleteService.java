@@ -0,0 +1,13 @@
+package com.paf.service;
+
+import com.paf.model.DeletionJob;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CascadeDeleteService {
+    DeletionJob deletePost(String postId);
+    DeletionJob deleteUser(String userId);
+    Optional<DeletionJob> getJob(String jobId);
+    List<DeletionJob> getRecentJobs(Integer limit);
+}
@@ -1,13 +1,20 @@
 package com.paf.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.model.Comment;
+import org.springframework.data.domain.Sort;
 
 public interface CommentService {
     List<Comment> getCommentsForPost(String postId);
+    CursorPageDTO<Comment> getCommentThread(String postId, String after, Integer limit, Sort.Direction direction);
+    Map<String, List<Comment>> getCommentsForPosts(Collection<String> postIds);
     Comment addCommentToPost(String postId, String content, String commentBy, String commentById, String commentByProfile, String media);
     void deleteComment(String postId, String commentId);
+    int deleteCommentsByAuthor(String userId, int batchSize);
 
     Comment editComment(String commentId, String content, String media);
 }
@@ -0,0 +1,12 @@
+package com.paf.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportPosts(OutputStream out) throws IOException;
+    void exportUsers(OutputStream out) throws IOException;
+    void exportWorkoutStatuses(OutputStream out) throws IOException;
+    void exportMealPlans(OutputStream out) throws IOException;
+    void exportSharePosts(OutputStream out) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.paf.service;
+
+import com.paf.DTO.NutritionTotalsDTO;
+import com.paf.model.MealPlan;
+import com.paf.model.RollupGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface NutritionService {
+
+    void recordCreated(MealPlan mealPlan);
+
+    void recordUpdated(MealPlan before, MealPlan after);
+
+    void recordDeleted(MealPlan mealPlan);
+
+    List<NutritionTotalsDTO> getTotals(String userId, RollupGranularity granularity, LocalDate from, LocalDate to);
+
+    void rebuild(String userId);
+}
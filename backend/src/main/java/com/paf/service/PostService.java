@@ -1,5 +1,6 @@
 package com.paf.service;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.PostDTO;
 import com.paf.model.Post;
 import org.springframework.http.ResponseEntity;
@@ -8,7 +9,13 @@ import java.util.List;
 import java.util.Optional;
 
 public interface PostService {
-    List<Post> getAllPosts();
+    List<Post> getAllPosts(boolean includeComments);
+
+    CursorPageDTO<Post> getFeed(String after, Integer limit, boolean includeComments);
+
+    String getAllPostsETag();
+
+    String getFeedETag(String after, Integer limit);
 
     Optional<Post> getPostById(String id);
 
@@ -20,6 +27,6 @@ public interface PostService {
 
     ResponseEntity<Object> likePost(String postId, String userId);
 
-    List<Post> getPostByIdUserId(String userId);
+    List<Post> getPostByIdUserId(String userId, boolean includeComments);
 
 }
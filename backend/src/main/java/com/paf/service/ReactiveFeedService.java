@@ -0,0 +1,14 @@
+package com.paf.service;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Comment;
+import com.paf.model.Post;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveFeedService {
+    Flux<Post> streamFeed(String after, Integer limit, boolean includeComments);
+    Mono<CursorPageDTO<Post>> getFeed(String after, Integer limit, boolean includeComments);
+    Mono<CursorPageDTO<Comment>> getCommentThread(String postId, String after, Integer limit, Sort.Direction direction);
+}
@@ -1,5 +1,6 @@
 package com.paf.service;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ShareDTO;
 import org.springframework.stereotype.Service;
 
@@ -11,9 +12,17 @@ import java.util.List;
 public interface SharePostService {
     List<SharePostModel> getSharePosts();
 
+    CursorPageDTO<SharePostModel> getSharePosts(String after, Integer limit);
+
+    String getSharePostsETag();
+
+    String getSharePostsETag(String after, Integer limit);
+
 
     SharePostModel createSharePost(ShareDTO shareDTO);
     void deleteSharedPost(String id);
 
     List<SharePostModel> getSharePostsByuser(String id);
+
+    CursorPageDTO<SharePostModel> getSharePostsByuser(String id, String after, Integer limit);
 }
@@ -0,0 +1,12 @@
+package com.paf.service;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Post;
+
+public interface TimelineService {
+    void fanOut(Post post);
+
+    CursorPageDTO<Post> getTimeline(String userId, String after, Integer limit, boolean includeComments);
+
+    void removeAuthor(String userId, String authorId);
+}
@@ -1,7 +1,10 @@
 package com.paf.service;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ProfileUpdateDTO;
 import com.paf.DTO.UserDTO;
+import com.paf.DTO.UserResDTO;
+import com.paf.model.RegistrationSource;
 import com.paf.model.User;
 import org.springframework.http.ResponseEntity;
 
@@ -10,9 +13,14 @@ import java.util.List;
 public interface UserService {
     ResponseEntity<Object> createUser(User user);
     UserDTO getUserById(String userId);
+
+    String getUserETag(String userId);
     List<UserDTO> getAllUsers();
     List<UserDTO> getActiveUsers();
+    CursorPageDTO<UserDTO> getUserDirectory(String query, Boolean active, RegistrationSource source, String after, Integer limit);
     ResponseEntity<Object> followUser(String userId, String followedUserId);
+    CursorPageDTO<UserResDTO> getFollowers(String userId, String after, Integer limit);
+    CursorPageDTO<UserResDTO> getFollowing(String userId, String after, Integer limit);
 
     ResponseEntity<Object> loginUser(String email, String password);
 
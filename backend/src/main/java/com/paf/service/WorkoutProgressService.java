@@ -0,0 +1,28 @@
+package com.paf.service;
+
+import com.paf.DTO.PersonalBestsDTO;
+import com.paf.DTO.WorkoutProgressDTO;
+import com.paf.DTO.WorkoutStreakDTO;
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WorkoutProgressService {
+
+    void recordCreated(WorkoutStatus status);
+
+    void recordUpdated(WorkoutStatus before, WorkoutStatus after);
+
+    void recordDeleted(WorkoutStatus status);
+
+    List<WorkoutProgressDTO> getProgress(String userId, RollupGranularity granularity, LocalDate from, LocalDate to);
+
+    PersonalBestsDTO getPersonalBests(String userId);
+
+    WorkoutStreakDTO getStreaks(String userId);
+
+    void rebuild(String userId);
+}
@@ -0,0 +1,60 @@
+package com.paf.service.impl;
+
+import com.paf.model.DeletionJob;
+import com.paf.repo.DeletionJobRepository;
+import com.paf.repo.PostRepository;
+import com.paf.repo.UserRepository;
+import com.paf.service.CascadeDeleteService;
+import com.paf.util.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class CascadeDeleteServiceImpl implements CascadeDeleteService {
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CascadeDeleteWorker cascadeDeleteWorker;
+
+    // The job is recorded before the root document goes, so a crash in between
+    // still leaves something for the sweeper to finish.
+    @Override
+    public DeletionJob deletePost(String postId) {
+        DeletionJob job = deletionJobRepository.save(new DeletionJob(DeletionJob.Target.POST, postId));
+        postRepository.deleteById(postId);
+        cascadeDeleteWorker.runAsync(job.getId());
+        return job;
+    }
+
+    @Override
+    public DeletionJob deleteUser(String userId) {
+        DeletionJob job = deletionJobRepository.save(new DeletionJob(DeletionJob.Target.USER, userId));
+        userRepository.deleteById(userId);
+        cascadeDeleteWorker.runAsync(job.getId());
+        return job;
+    }
+
+    @Override
+    public Optional<DeletionJob> getJob(String jobId) {
+        return deletionJobRepository.findById(jobId);
+    }
+
+    @Override
+    public List<DeletionJob> getRecentJobs(Integer limit) {
+        return deletionJobRepository.findAllBy(
+                PageRequest.of(0, Cursor.clampLimit(limit), Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+}
@@ -0,0 +1,222 @@
+package com.paf.service.impl;
+
+import com.paf.cache.UserCache;
+import com.paf.model.Comment;
+import com.paf.model.DeletionJob;
+import com.paf.model.Follow;
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import com.paf.model.Post;
+import com.paf.model.SharePostModel;
+import com.paf.model.Timeline;
+import com.paf.model.User;
+import com.paf.model.WorkoutPlan;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+import com.paf.repo.DeletionJobRepository;
+import com.paf.repo.TimelineRepository;
+import com.paf.service.CommentService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs cascade deletions recorded as {@link DeletionJob}s. Every step removes
+ * dependents in bounded batches and is safe to repeat, so a job interrupted by
+ * a crash is resumed from its last finished step once its heartbeat goes stale.
+ */
+@Component
+public class CascadeDeleteWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteWorker.class);
+
+    private record Step(String collection, ToLongFunction<DeletionJob> batch) {
+    }
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${paf.deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${paf.deletion.lease:5m}")
+    private Duration lease;
+
+    @Value("${paf.deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    @Async
+    public void runAsync(String jobId) {
+        run(jobId);
+    }
+
+    // picks up jobs whose worker died and failed jobs that still have attempts left
+    @Scheduled(fixedDelayString = "${paf.deletion.sweep-interval:60000}", initialDelay = 10_000)
+    public void sweep() {
+        for (String jobId : deletionJobRepository.findClaimableIds(Instant.now().minus(lease), maxAttempts)) {
+            run(jobId);
+        }
+    }
+
+    void run(String jobId) {
+        DeletionJob job = deletionJobRepository.claim(jobId, Instant.now().minus(lease), maxAttempts);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            List<Step> steps = steps(job.getTarget());
+            for (int i = job.getStep(); i < steps.size(); i++) {
+                Step step = steps.get(i);
+                long count;
+                while ((count = step.batch().applyAsLong(job)) > 0) {
+                    deletionJobRepository.recordBatch(jobId, step.collection(), count);
+                }
+                deletionJobRepository.advance(jobId, i + 1);
+            }
+            deletionJobRepository.complete(jobId);
+            log.info("Cascade delete of {} {} finished", job.getTarget(), job.getTargetId());
+        } catch (RuntimeException e) {
+            log.warn("Cascade delete of {} {} failed on attempt {}", job.getTarget(), job.getTargetId(), job.getAttempts(), e);
+            deletionJobRepository.fail(jobId, e.getMessage());
+        }
+    }
+
+    private List<Step> steps(DeletionJob.Target target) {
+        if (target == DeletionJob.Target.POST) {
+            return List.of(
+                    new Step("comments", job -> deleteBatch(Comment.class, Criteria.where("postId").is(job.getTargetId()))),
+                    new Step("shared_posts", job -> deleteBatch(SharePostModel.class, Criteria.where("postId").is(job.getTargetId()))));
+        }
+        return List.of(
+                new Step("follows", this::deleteFollowingBatch),
+                new Step("follows", this::deleteFollowersBatch),
+                new Step("posts", this::deletePostBatch),
+                new Step("comments", job -> commentService.deleteCommentsByAuthor(job.getTargetId(), batchSize)),
+                new Step("shared_posts", job -> deleteBatch(SharePostModel.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("mealPlans", job -> deleteBatch(MealPlan.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("nutrition_rollups", job -> deleteBatch(NutritionRollup.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("workoutPlans", job -> deleteBatch(WorkoutPlan.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("workoutStatus", job -> deleteBatch(WorkoutStatus.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("workout_rollups", job -> deleteBatch(WorkoutRollup.class, Criteria.where("userId").is(job.getTargetId()))),
+                new Step("timelines", job -> deleteBatch(Timeline.class, Criteria.where("_id").is(job.getTargetId()))));
+    }
+
+    // The other side's counter is recounted from the edges that will remain before any
+    // edge is removed, so a retry after a crash between the two writes sets the same value.
+    private long deleteFollowingBatch(DeletionJob job) {
+        List<Follow> edges = findBatch(Follow.class, Criteria.where("followerId").is(job.getTargetId()));
+        if (edges.isEmpty()) {
+            return 0;
+        }
+        List<String> followeeIds = edges.stream().map(Follow::getFolloweeId).toList();
+        recount(followeeIds, "followeeId", "followerId", job.getTargetId(), "followersCount");
+        userCache.invalidate(followeeIds.toArray(String[]::new));
+        removeByIds(Follow.class, edges.stream().map(Follow::getId).toList());
+        return edges.size();
+    }
+
+    private long deleteFollowersBatch(DeletionJob job) {
+        List<Follow> edges = findBatch(Follow.class, Criteria.where("followeeId").is(job.getTargetId()));
+        if (edges.isEmpty()) {
+            return 0;
+        }
+        List<String> followerIds = edges.stream().map(Follow::getFollowerId).toList();
+        recount(followerIds, "followerId", "followeeId", job.getTargetId(), "followingCount");
+        timelineRepository.removeAuthor(followerIds, job.getTargetId());
+        userCache.invalidate(followerIds.toArray(String[]::new));
+        removeByIds(Follow.class, edges.stream().map(Follow::getId).toList());
+        return edges.size();
+    }
+
+    private void recount(List<String> userIds, String side, String otherSide, String excludedId, String counter) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(side).in(userIds).and(otherSide).ne(excludedId)),
+                Aggregation.group(side).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, Follow.class, Document.class)) {
+            counts.put(group.getString("_id"), ((Number) group.get("count")).longValue());
+        }
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (String userId : new HashSet<>(userIds)) {
+            // bulk writes skip the automatic version bump the profile ETag relies on
+            updates.updateOne(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().set(counter, counts.getOrDefault(userId, 0L)).inc("version", 1));
+        }
+        updates.execute();
+    }
+
+    private long deletePostBatch(DeletionJob job) {
+        Query query = Query.query(Criteria.where("userId").is(job.getTargetId())).limit(batchSize);
+        query.fields().include("_id");
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        // dependents go first so a crash leaves the posts selectable for the retry
+        List<String> postIds = posts.stream().map(Post::getId).toList();
+        drain(job, Comment.class, "comments", Criteria.where("postId").in(postIds));
+        drain(job, SharePostModel.class, "shared_posts", Criteria.where("postId").in(postIds));
+        removeByIds(Post.class, postIds);
+        return posts.size();
+    }
+
+    private void drain(DeletionJob job, Class<?> type, String collection, Criteria criteria) {
+        long count;
+        while ((count = deleteBatch(type, criteria)) > 0) {
+            deletionJobRepository.recordBatch(job.getId(), collection, count);
+        }
+    }
+
+    private long deleteBatch(Class<?> type, Criteria criteria) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("_id");
+        List<Object> ids = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type)).stream()
+                .map(doc -> doc.get("_id"))
+                .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), type);
+        return ids.size();
+    }
+
+    private <T> List<T> findBatch(Class<T> type, Criteria criteria) {
+        return mongoTemplate.find(Query.query(criteria).limit(batchSize), type);
+    }
+
+    private void removeByIds(Class<?> type, List<?> ids) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), type);
+    }
+}
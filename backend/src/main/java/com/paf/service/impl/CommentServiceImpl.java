@@ -1,17 +1,26 @@
 package com.paf.service.impl;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.model.Comment;
+import com.paf.model.CommentPreview;
 import com.paf.model.Post;
 import com.paf.repo.CommentRepository;
 import com.paf.repo.PostRepository;
+import com.paf.util.Cursor;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.paf.service.CommentService;
 
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentServiceImpl implements CommentService {
@@ -22,15 +31,49 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private PostRepository postRepository;
 
+    private static final int PREVIEW_SIZE = 3;
+
     @Override
     public List<Comment> getCommentsForPost(String postId) {
         return commentRepository.findByPostId(postId);
     }
 
+    @Override
+    public CursorPageDTO<Comment> getCommentThread(String postId, String after, Integer limit, Sort.Direction direction) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, Sort.by(direction, "createdAt", "id"));
+
+        List<Comment> comments;
+        if (after == null || after.isBlank()) {
+            comments = commentRepository.findByPostId(postId, page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            ObjectId id = cursor.objectId();
+            comments = direction.isAscending()
+                    ? commentRepository.findPageAfter(postId, cursor.getTimestamp(), id, page)
+                    : commentRepository.findPageBefore(postId, cursor.getTimestamp(), id, page);
+        }
+
+        String nextCursor = null;
+        if (comments.size() == pageSize) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(comments, nextCursor);
+    }
+
+    @Override
+    public Map<String, List<Comment>> getCommentsForPosts(Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.findByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(Comment::getPostId));
+    }
+
     @Override
     public Comment addCommentToPost(String postId, String content, String commentBy, String commentById, String commentByProfile, String media) {
-        Optional<Post> postOptional = postRepository.findById(postId);
-        if (postOptional.isPresent()) {
+        if (postRepository.existsById(postId)) {
             Comment comment = new Comment();
             comment.setPostId(postId);
             comment.setContent(content);
@@ -38,15 +81,57 @@ public class CommentServiceImpl implements CommentService {
             comment.setCommentById(commentById);
             comment.setCommentByProfile(commentByProfile);
             comment.setMedia(media);
-            comment.setCreatedAt(String.valueOf(new Date()));
-            return commentRepository.save(comment);
+            Comment saved = commentRepository.save(comment);
+            postRepository.addCommentPreview(postId, CommentPreview.of(saved), PREVIEW_SIZE);
+            return saved;
         }
         return null;
     }
 
     @Override
     public void deleteComment(String postId, String commentId) {
-        commentRepository.deleteById(commentId);
+        // the stored postId is authoritative; callers have passed share ids here
+        Optional<Comment> commentOptional = commentRepository.findById(commentId);
+        if (commentOptional.isEmpty()) {
+            return;
+        }
+        String ownerPostId = commentOptional.get().getPostId();
+        if (commentRepository.deleteByIdAndPostId(commentId, ownerPostId) == 0) {
+            return;
+        }
+        detachFromPost(ownerPostId, List.of(commentId));
+    }
+
+    @Override
+    public int deleteCommentsByAuthor(String userId, int batchSize) {
+        List<Comment> batch = commentRepository.findByCommentById(userId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // every touched post is recounted without this author before anything is removed,
+        // so a retry after a crash between the two writes sets the same values again
+        batch.stream().map(Comment::getPostId).distinct().forEach(postId -> {
+            List<CommentPreview> previews = commentRepository
+                    .findTop3ByPostIdAndCommentByIdNotOrderByCreatedAtDescIdDesc(postId, userId).stream()
+                    .map(CommentPreview::of)
+                    .toList();
+            postRepository.setCommentSummary(postId, commentRepository.countByPostIdAndCommentByIdNot(postId, userId), previews);
+        });
+        commentRepository.deleteAll(batch);
+        return batch.size();
+    }
+
+    private void detachFromPost(String postId, List<String> commentIds) {
+        Post post = postRepository.removeCommentPreviews(postId, commentIds);
+        if (post != null) {
+            int shown = post.getLatestComments() == null ? 0 : post.getLatestComments().size();
+            if (shown < Math.min(PREVIEW_SIZE, post.getCommentCount())) {
+                List<CommentPreview> previews = commentRepository.findTop3ByPostIdOrderByCreatedAtDescIdDesc(postId).stream()
+                        .map(CommentPreview::of)
+                        .toList();
+                postRepository.replaceCommentPreviews(postId, previews);
+            }
+        }
     }
 
     @Override
@@ -58,7 +143,9 @@ public class CommentServiceImpl implements CommentService {
             if (media != null) {
                 comment.setMedia(media);
             }
-            return commentRepository.save(comment);
+            Comment saved = commentRepository.save(comment);
+            postRepository.updateCommentPreview(saved.getPostId(), CommentPreview.of(saved));
+            return saved;
         }
         return null;
     }
@@ -0,0 +1,89 @@
+package com.paf.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paf.DTO.UserDTO;
+import com.paf.model.MealPlan;
+import com.paf.model.Post;
+import com.paf.model.SharePostModel;
+import com.paf.model.User;
+import com.paf.model.WorkoutStatus;
+import com.paf.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole collections as newline-delimited JSON straight from a MongoDB
+ * cursor. Each document is serialized and dropped before the next one is read,
+ * and a slow client blocks the servlet stream, which in turn stops the cursor
+ * from fetching further batches.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paf.export.cursor-batch-size:500}")
+    private int cursorBatchSize;
+
+    @Override
+    public void exportPosts(OutputStream out) throws IOException {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        // legacy documents may still hold DBRefs here; resolving them would cost a query per post
+        query.fields().exclude("comments");
+        write(mongoTemplate.stream(query, Post.class), out);
+    }
+
+    @Override
+    public void exportUsers(OutputStream out) throws IOException {
+        write(mongoTemplate.query(User.class).as(UserDTO.class)
+                .matching(new Query().cursorBatchSize(cursorBatchSize))
+                .stream(), out);
+    }
+
+    @Override
+    public void exportWorkoutStatuses(OutputStream out) throws IOException {
+        write(mongoTemplate.stream(new Query().cursorBatchSize(cursorBatchSize), WorkoutStatus.class), out);
+    }
+
+    @Override
+    public void exportMealPlans(OutputStream out) throws IOException {
+        write(mongoTemplate.stream(new Query().cursorBatchSize(cursorBatchSize), MealPlan.class), out);
+    }
+
+    @Override
+    public void exportSharePosts(OutputStream out) throws IOException {
+        write(mongoTemplate.stream(new Query().cursorBatchSize(cursorBatchSize), SharePostModel.class), out);
+    }
+
+    private void write(Stream<?> documents, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (documents; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            documents.forEach(document -> {
+                try {
+                    writer.writeValue(generator, document);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -3,11 +3,12 @@ package com.paf.service.impl;
 import java.util.List;
 import java.util.Optional;
 
+import com.paf.cache.UserCache;
 import com.paf.model.MealPlan;
 import com.paf.model.User;
 import com.paf.repo.MealPlanRepository;
-import com.paf.repo.UserRepository;
 import com.paf.service.MealPlanService;
+import com.paf.service.NutritionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -18,7 +19,10 @@ public class MealPlanServiceImpl implements MealPlanService {
     private MealPlanRepository mealPlanRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Autowired
+    private NutritionService nutritionService;
 
     @Override
     public List<MealPlan> getAllMealPlans() {
@@ -32,48 +36,47 @@ public class MealPlanServiceImpl implements MealPlanService {
 
     @Override
     public MealPlan createMealPlan(MealPlan mealPlan) {
-        Optional<User> userOptional = userRepository.findById(mealPlan.getUserId());
+        Optional<User> userOptional = userCache.findById(mealPlan.getUserId());
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             mealPlan.setUserId(user.getId());
             mealPlan.setUsername(user.getName());
             mealPlan.setUserProfile(user.getProfileImage());
-            return mealPlanRepository.save(mealPlan);
+            MealPlan saved = mealPlanRepository.save(mealPlan);
+            nutritionService.recordCreated(saved);
+            return saved;
         } else {
             return null;
         }
     }
 
+    // the replace and remove hand back the document they changed, so when two requests race
+    // on the same meal plan each rollup delta starts from what that request actually overwrote
     @Override
     public MealPlan updatMealPlan(String mealPlanId, MealPlan mealPlan) {
-        if (mealPlanRepository.existsById(mealPlanId)) {
-            Optional<User> userOptional = userRepository.findById(mealPlan.getUserId());
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-                mealPlan.setUserId(user.getId());
-                mealPlan.setUsername(user.getName());
-                mealPlan.setUserProfile(user.getProfileImage());
-                mealPlan.setMealPlanId(mealPlanId);
-                mealPlan.setMealType(mealPlan.getMealType());
-                mealPlan.setMealName(mealPlan.getMealName());
-                mealPlan.setProtein(mealPlan.getProtein());
-                mealPlan.setFats(mealPlan.getFats());
-                mealPlan.setDescription(mealPlan.getDescription());
-                mealPlan.setCalories(mealPlan.getCalories());
-                mealPlan.setCarbs(mealPlan.getCarbs());
-                mealPlan.setDate(mealPlan.getDate());
-                return mealPlanRepository.save(mealPlan);
-            } else {
-                return null;
-            }
-        } else {
+        Optional<User> userOptional = userCache.findById(mealPlan.getUserId());
+        if (userOptional.isEmpty()) {
             return null;
         }
+        User user = userOptional.get();
+        mealPlan.setUserId(user.getId());
+        mealPlan.setUsername(user.getName());
+        mealPlan.setUserProfile(user.getProfileImage());
+        mealPlan.setMealPlanId(mealPlanId);
+        MealPlan previous = mealPlanRepository.replace(mealPlan);
+        if (previous == null) {
+            return null;
+        }
+        nutritionService.recordUpdated(previous, mealPlan);
+        return mealPlan;
     }
 
     @Override
     public void deleteMealPlan(String mealPlanId) {
-        mealPlanRepository.deleteById(mealPlanId);
+        MealPlan removed = mealPlanRepository.removeById(mealPlanId);
+        if (removed != null) {
+            nutritionService.recordDeleted(removed);
+        }
     }
 
 }
@@ -0,0 +1,130 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.NutritionTotalsDTO;
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import com.paf.model.RollupGranularity;
+import com.paf.repo.MealPlanRepository;
+import com.paf.repo.NutritionRollupRepository;
+import com.paf.service.NutritionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class NutritionServiceImpl implements NutritionService {
+
+    private static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.DAY, RollupGranularity.WEEK);
+    private static final int DEFAULT_DAYS = 7;
+    private static final int DEFAULT_WEEKS = 8;
+
+    @Autowired
+    private NutritionRollupRepository nutritionRollupRepository;
+
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+
+    @Override
+    public void recordCreated(MealPlan mealPlan) {
+        if (mealPlan.getDate() == null) {
+            return;
+        }
+        for (RollupGranularity granularity : GRANULARITIES) {
+            // a racing delete of an older version may have been applied first
+            NutritionRollup rollup = nutritionRollupRepository.apply(granularity, mealPlan, 1);
+            if (rollup.getMeals() <= 0) {
+                nutritionRollupRepository.deleteIfEmpty(rollup.getId());
+            }
+        }
+    }
+
+    @Override
+    public void recordUpdated(MealPlan before, MealPlan after) {
+        if (before != null && Objects.equals(before.getUserId(), after.getUserId())
+                && Objects.equals(before.getDate(), after.getDate())
+                && before.getProtein() == after.getProtein()
+                && before.getFats() == after.getFats()
+                && before.getCarbs() == after.getCarbs()
+                && before.getCalories() == after.getCalories()) {
+            return;
+        }
+        if (before != null) {
+            recordDeleted(before);
+        }
+        recordCreated(after);
+    }
+
+    @Override
+    public void recordDeleted(MealPlan mealPlan) {
+        if (mealPlan.getDate() == null) {
+            return;
+        }
+        for (RollupGranularity granularity : GRANULARITIES) {
+            NutritionRollup rollup = nutritionRollupRepository.apply(granularity, mealPlan, -1);
+            if (rollup.getMeals() <= 0) {
+                nutritionRollupRepository.deleteIfEmpty(rollup.getId());
+            }
+        }
+    }
+
+    @Override
+    public List<NutritionTotalsDTO> getTotals(String userId, RollupGranularity granularity, LocalDate from, LocalDate to) {
+        if (!GRANULARITIES.contains(granularity)) {
+            throw new IllegalArgumentException("nutrition totals are kept per day and per week only");
+        }
+        List<LocalDate> periods = granularity.periods(from, to,
+                granularity == RollupGranularity.DAY ? DEFAULT_DAYS : DEFAULT_WEEKS);
+        Map<LocalDate, NutritionRollup> rollups = new HashMap<>();
+        nutritionRollupRepository.findByUserIdAndGranularityAndPeriodStartBetween(userId, granularity,
+                        Range.closed(periods.get(0), periods.get(periods.size() - 1)), Sort.by("periodStart"))
+                .forEach(rollup -> rollups.put(rollup.getPeriodStart(), rollup));
+
+        return periods.stream()
+                .map(period -> {
+                    NutritionRollup rollup = rollups.get(period);
+                    return rollup != null
+                            ? new NutritionTotalsDTO(period, rollup.getMeals(), rollup.getProtein(), rollup.getFats(),
+                                    rollup.getCarbs(), rollup.getCalories())
+                            : new NutritionTotalsDTO(period, 0, 0, 0, 0, 0);
+                })
+                .toList();
+    }
+
+    @Override
+    public void rebuild(String userId) {
+        // the day totals come from the aggregation; weeks are folded from them here
+        List<NutritionRollup> rollups = new ArrayList<>();
+        Map<LocalDate, NutritionRollup> weeks = new LinkedHashMap<>();
+        for (NutritionRollup day : mealPlanRepository.sumMacrosByDay(userId)) {
+            rollups.add(stamp(day, userId, RollupGranularity.DAY, day.getPeriodStart()));
+            LocalDate weekStart = RollupGranularity.WEEK.periodStart(day.getPeriodStart());
+            NutritionRollup week = weeks.computeIfAbsent(weekStart,
+                    start -> stamp(new NutritionRollup(), userId, RollupGranularity.WEEK, start));
+            week.setMeals(week.getMeals() + day.getMeals());
+            week.setProtein(week.getProtein() + day.getProtein());
+            week.setFats(week.getFats() + day.getFats());
+            week.setCarbs(week.getCarbs() + day.getCarbs());
+            week.setCalories(week.getCalories() + day.getCalories());
+        }
+        rollups.addAll(weeks.values());
+        nutritionRollupRepository.replaceAll(userId, rollups);
+    }
+
+    private static NutritionRollup stamp(NutritionRollup rollup, String userId, RollupGranularity granularity,
+            LocalDate periodStart) {
+        rollup.setId(NutritionRollup.id(userId, granularity, periodStart));
+        rollup.setUserId(userId);
+        rollup.setGranularity(granularity);
+        rollup.setPeriodStart(periodStart);
+        return rollup;
+    }
+}
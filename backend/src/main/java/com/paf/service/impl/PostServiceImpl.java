@@ -1,19 +1,30 @@
 package com.paf.service.impl;
 
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.PostDTO;
+import com.paf.cache.UserCache;
+import com.paf.model.Comment;
+import com.paf.model.DocumentVersion;
 import com.paf.model.Post;
-import com.paf.model.User;
 import com.paf.repo.PostRepository;
-import com.paf.repo.UserRepository;
+import com.paf.util.Cursor;
+import com.paf.util.ETag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.paf.service.CascadeDeleteService;
 import com.paf.service.CommentService;
 import com.paf.service.PostService;
+import com.paf.service.TimelineService;
 
 import java.util.*;
 
@@ -21,26 +32,83 @@ import java.util.*;
 @Service
 public class PostServiceImpl implements PostService {
 
+    private static final Logger log = LoggerFactory.getLogger(PostServiceImpl.class);
+
     @Autowired
     private PostRepository postRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    private static final Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     @Override
-    public List<Post> getAllPosts() {
-        List<Post> posts = postRepository.findAll();
-        for (Post post : posts) {
-            post.setComments(commentService.getCommentsForPost(post.getId()));
+    public List<Post> getAllPosts(boolean includeComments) {
+        List<Post> posts = postRepository.findAll(FEED_SORT);
+        if (includeComments) {
+            attachComments(posts);
         }
-
-        posts.sort(Comparator.comparing(Post::getDate).reversed());
         return posts;
     }
 
+    @Override
+    public CursorPageDTO<Post> getFeed(String after, Integer limit, boolean includeComments) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, FEED_SORT);
+
+        List<Post> posts;
+        if (after == null || after.isBlank()) {
+            posts = postRepository.findAllBy(page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            posts = postRepository.findPageAfter(cursor.getTimestamp(), cursor.objectId(), page);
+        }
+
+        if (includeComments) {
+            attachComments(posts);
+        }
+
+        String nextCursor = null;
+        if (posts.size() == pageSize) {
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(posts, nextCursor);
+    }
+
+    // Comment changes bump the post's version too, so these tags also cover includeComments.
+    @Override
+    public String getAllPostsETag() {
+        return digest(postRepository.findVersionsBy(FEED_SORT));
+    }
+
+    @Override
+    public String getFeedETag(String after, Integer limit) {
+        PageRequest page = PageRequest.of(0, Cursor.clampLimit(limit), FEED_SORT);
+        if (after == null || after.isBlank()) {
+            return digest(postRepository.findVersionsBy(page));
+        }
+        Cursor cursor = Cursor.decode(after);
+        return digest(postRepository.findVersionsPageAfter(cursor.getTimestamp(), cursor.objectId(), page));
+    }
+
+    private static String digest(List<DocumentVersion> versions) {
+        ETag eTag = ETag.digest();
+        for (DocumentVersion version : versions) {
+            eTag.add(version.getId(), version.getVersion());
+        }
+        return eTag.build();
+    }
+
     @Override
     public Optional<Post> getPostById(String id) {
         return postRepository.findById(id);
@@ -48,79 +116,68 @@ public class PostServiceImpl implements PostService {
 
     @Override
     public Post createPost(Post post) {
-        post.setDate(String.valueOf(new Date()));
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        timelineService.fanOut(saved);
+        return saved;
     }
 
     @Override
     public ResponseEntity<Post> editPost(PostDTO postDTO) {
-        Post post = postRepository.findById(postDTO.getId())
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
+        List<String> images = postDTO.getImages();
+        if (images == null) {
+            images = Collections.emptyList();
+        }
+        Post post;
         try {
-            post.setTitle(postDTO.getTitle());
-            List<String> images = postDTO.getImages();
-            if (images != null && !images.isEmpty()) {
-                post.setImages(images);
-            } else {
-                post.setImages(Collections.emptyList());
-            }
-            post.setDescription(postDTO.getDescription());
-            post.setDate(String.valueOf(new Date()));
-            post.setVideo(postDTO.getVideo());
-            postRepository.save(post);
-
-            return new ResponseEntity<>(post, HttpStatus.OK);
-
+            post = postRepository.updateContent(postDTO.getId(), postDTO.getTitle(), postDTO.getDescription(),
+                    images, postDTO.getVideo());
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return new ResponseEntity<>(post, HttpStatus.OK);
     }
 
     @Override
     public void deletePost(String id) {
-        postRepository.deleteById(id);
+        cascadeDeleteService.deletePost(id);
     }
 
     @Override
     public ResponseEntity<Object> likePost(String postId, String userId) {
         try {
-            Post post = postRepository.findById(postId)
-                    .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
-
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-
-            if (post.getLikedBy() == null) {
-                post.setLikedBy(new ArrayList<>());
+            if (!userCache.exists(userId)) {
+                throw new RuntimeException("User not found with id: " + userId);
             }
 
-            if (post.getLikedBy().contains(userId)) {
-                post.getLikedBy().remove(userId);
-                post.setLikeCount(post.getLikeCount() - 1);
-                postRepository.save(post);
-                return new ResponseEntity<>(post, HttpStatus.OK);
-            } else {
-                post.getLikedBy().add(userId);
-                post.setLikeCount(post.getLikeCount() + 1);
-                postRepository.save(post);
-                return new ResponseEntity<>(post, HttpStatus.OK);
+            Post post = postRepository.toggleLike(postId, userId);
+            if (post == null) {
+                throw new RuntimeException("Post not found with id: " + postId);
             }
+            return new ResponseEntity<>(post, HttpStatus.OK);
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.error("Like of post {} by user {} failed", postId, userId, e);
             return new ResponseEntity<>("Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @Override
-    public List<Post> getPostByIdUserId(String userId) {
+    public List<Post> getPostByIdUserId(String userId, boolean includeComments) {
         List<Post> posts = postRepository.findByUserId(userId);
-        for (Post post : posts) {
-            post.setComments(commentService.getCommentsForPost(post.getId()));
+        if (includeComments) {
+            attachComments(posts);
         }
         return posts;
     }
 
-
+    private void attachComments(List<Post> posts) {
+        List<String> postIds = posts.stream().map(Post::getId).toList();
+        Map<String, List<Comment>> commentsByPost = commentService.getCommentsForPosts(postIds);
+        for (Post post : posts) {
+            post.setComments(commentsByPost.getOrDefault(post.getId(), new ArrayList<>()));
+        }
+    }
 }
 
@@ -0,0 +1,114 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Comment;
+import com.paf.model.Post;
+import com.paf.repo.reactive.ReactiveCommentRepository;
+import com.paf.repo.reactive.ReactivePostRepository;
+import com.paf.service.ReactiveFeedService;
+import com.paf.util.Cursor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the feed and comment-thread reads. Posts are
+ * emitted as the cursor yields them and, when requested, each post's comments
+ * are fetched concurrently, at most {@code paf.reactive.comment-concurrency}
+ * queries at a time, while keeping the feed order.
+ */
+@Service
+public class ReactiveFeedServiceImpl implements ReactiveFeedService {
+
+    private static final Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final Sort THREAD_SORT = Sort.by(Sort.Direction.ASC, "createdAt", "id");
+
+    @Autowired
+    private ReactivePostRepository postRepository;
+
+    @Autowired
+    private ReactiveCommentRepository commentRepository;
+
+    @Value("${paf.reactive.comment-concurrency:8}")
+    private int commentConcurrency;
+
+    @Override
+    public Flux<Post> streamFeed(String after, Integer limit, boolean includeComments) {
+        PageRequest page = PageRequest.of(0, Cursor.clampLimit(limit), FEED_SORT);
+        Flux<Post> posts;
+        if (after == null || after.isBlank()) {
+            posts = postRepository.findAllBy(page);
+        } else {
+            Cursor cursor;
+            try {
+                cursor = Cursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Flux.error(e);
+            }
+            posts = postRepository.findPageAfter(cursor.getTimestamp(), cursor.objectId(), page);
+        }
+        if (!includeComments) {
+            return posts;
+        }
+        return posts.flatMapSequential(post -> commentRepository.findByPostId(post.getId(), THREAD_SORT)
+                .collectList()
+                .map(comments -> {
+                    post.setComments(comments);
+                    return post;
+                }), commentConcurrency);
+    }
+
+    @Override
+    public Mono<CursorPageDTO<Post>> getFeed(String after, Integer limit, boolean includeComments) {
+        int pageSize = Cursor.clampLimit(limit);
+        return streamFeed(after, pageSize, includeComments)
+                .collectList()
+                .map(posts -> new CursorPageDTO<>(posts, nextCursor(posts, pageSize)));
+    }
+
+    @Override
+    public Mono<CursorPageDTO<Comment>> getCommentThread(String postId, String after, Integer limit, Sort.Direction direction) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, Sort.by(direction, "createdAt", "id"));
+
+        Flux<Comment> comments;
+        if (after == null || after.isBlank()) {
+            comments = commentRepository.findByPostId(postId, page);
+        } else {
+            Cursor cursor;
+            try {
+                cursor = Cursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Mono.error(e);
+            }
+            ObjectId id = cursor.objectId();
+            comments = direction.isAscending()
+                    ? commentRepository.findPageAfter(postId, cursor.getTimestamp(), id, page)
+                    : commentRepository.findPageBefore(postId, cursor.getTimestamp(), id, page);
+        }
+
+        return comments.collectList().map(items -> {
+            String nextCursor = null;
+            if (items.size() == pageSize) {
+                Comment last = items.get(items.size() - 1);
+                nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+            }
+            return new CursorPageDTO<>(items, nextCursor);
+        });
+    }
+
+    private static String nextCursor(List<Post> posts, int pageSize) {
+        if (posts.size() < pageSize) {
+            return null;
+        }
+        Post last = posts.get(posts.size() - 1);
+        return new Cursor(last.getCreatedAt(), last.getId()).encode();
+    }
+}
@@ -1,17 +1,31 @@
 package com.paf.service.impl;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ShareDTO;
-import com.paf.model.Post;
+import com.paf.cache.UserCache;
+import com.paf.model.DocumentVersion;
+import com.paf.model.PostSummary;
+import com.paf.model.ShareReference;
 import com.paf.model.SharePostModel;
 import com.paf.model.User;
+import com.paf.model.UserSummary;
 import com.paf.repo.PostRepository;
 import com.paf.repo.SharePostRepository;
 import com.paf.repo.UserRepository;
 import com.paf.service.SharePostService;
+import com.paf.util.Cursor;
+import com.paf.util.ETag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class SharePostServiceImpl implements SharePostService {
 
@@ -23,28 +37,84 @@ public class SharePostServiceImpl implements SharePostService {
 
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    private static final Sort SHARE_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     @Override
     public List<SharePostModel> getSharePosts() {
-        return sharePostRepository.findAll();
+        return hydratePosts(sharePostRepository.findAll(SHARE_SORT));
+    }
+
+    @Override
+    public CursorPageDTO<SharePostModel> getSharePosts(String after, Integer limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, SHARE_SORT);
+        List<SharePostModel> shares;
+        if (after == null || after.isBlank()) {
+            shares = sharePostRepository.findAllBy(page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            shares = sharePostRepository.findPageAfter(cursor.getTimestamp(), cursor.objectId(), page);
+        }
+        return toPage(shares, pageSize);
+    }
+
+    @Override
+    public String getSharePostsETag() {
+        return digest(sharePostRepository.findReferencesBy(SHARE_SORT));
+    }
+
+    @Override
+    public String getSharePostsETag(String after, Integer limit) {
+        PageRequest page = PageRequest.of(0, Cursor.clampLimit(limit), SHARE_SORT);
+        if (after == null || after.isBlank()) {
+            return digest(sharePostRepository.findReferencesBy(page));
+        }
+        Cursor cursor = Cursor.decode(after);
+        return digest(sharePostRepository.findReferencesPageAfter(cursor.getTimestamp(), cursor.objectId(), page));
+    }
+
+    // Shares are never edited, so their ids and the versions of the posts they embed cover the payload.
+    private String digest(List<ShareReference> shares) {
+        List<String> postIds = shares.stream()
+                .map(ShareReference::getPostId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, Long> postVersions = postIds.isEmpty() ? Map.of() : postRepository.findVersionsByIdIn(postIds).stream()
+                .collect(Collectors.toMap(DocumentVersion::getId, version -> version.getVersion() == null ? 0L : version.getVersion()));
+        ETag eTag = ETag.digest();
+        for (ShareReference share : shares) {
+            Long postVersion = postVersions.get(share.getPostId());
+            // a deleted post drops out of the payload, so it must not look like version 0
+            eTag.add(share.getId() + ":" + (postVersion == null ? "-" : postVersion));
+        }
+        return eTag.build();
     }
 
     @Override
     public SharePostModel createSharePost(ShareDTO shareDTO) {
 
-        Post post = postRepository.findById(shareDTO.getPostId())
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        if (!postRepository.existsById(shareDTO.getPostId())) {
+            throw new RuntimeException("Post not found");
+        }
 
-        User user = userRepository.findById(shareDTO.getUserid())
+        User user = userCache.findById(shareDTO.getUserid())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         try{
             SharePostModel sharePostModel = new SharePostModel();
-            sharePostModel.setSharedBy(user);
-            sharePostModel.setPost(post);
+            sharePostModel.setSharedBy(UserSummary.of(user));
+            sharePostModel.setPostId(shareDTO.getPostId());
             sharePostModel.setDescription(shareDTO.getDescription());
             sharePostModel.setShared("shared");
             sharePostModel.setUserId(shareDTO.getUserid());
-            return sharePostRepository.save(sharePostModel);
+            SharePostModel saved = sharePostRepository.save(sharePostModel);
+            hydratePosts(List.of(saved));
+            return saved;
         }catch (Exception e){
             return null;
         }
@@ -57,11 +127,62 @@ public class SharePostServiceImpl implements SharePostService {
 
     @Override
     public List<SharePostModel> getSharePostsByuser(String id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        List<SharePostModel> shares = sharePostRepository.findByUserId(id, SHARE_SORT);
+        if (shares.isEmpty()) {
+            requireUser(id);
+        }
+        return hydratePosts(shares);
+    }
+
+    @Override
+    public CursorPageDTO<SharePostModel> getSharePostsByuser(String id, String after, Integer limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, SHARE_SORT);
+        List<SharePostModel> shares;
+        if (after == null || after.isBlank()) {
+            shares = sharePostRepository.findByUserId(id, page);
+            if (shares.isEmpty()) {
+                requireUser(id);
+            }
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            shares = sharePostRepository.findByUserIdPageAfter(id, cursor.getTimestamp(), cursor.objectId(), page);
+        }
+        return toPage(shares, pageSize);
+    }
 
-        return sharePostRepository.findByUserId(id);
+    // Only an empty timeline needs to tell a missing user apart from one who never
+    // shared anything; existsById is answered from the _id index.
+    private void requireUser(String id) {
+        if (!userRepository.existsById(id)) {
+            throw new RuntimeException("User not found");
+        }
     }
 
+    private CursorPageDTO<SharePostModel> toPage(List<SharePostModel> shares, int pageSize) {
+        hydratePosts(shares);
+        String nextCursor = null;
+        if (shares.size() == pageSize) {
+            SharePostModel last = shares.get(shares.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(shares, nextCursor);
+    }
 
+    private List<SharePostModel> hydratePosts(List<SharePostModel> shares) {
+        List<String> postIds = shares.stream()
+                .map(SharePostModel::getPostId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (postIds.isEmpty()) {
+            return shares;
+        }
+        Map<String, PostSummary> postsById = postRepository.findByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        for (SharePostModel share : shares) {
+            share.setPost(postsById.get(share.getPostId()));
+        }
+        return shares;
+    }
 }
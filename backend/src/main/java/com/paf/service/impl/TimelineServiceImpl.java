@@ -0,0 +1,221 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Comment;
+import com.paf.model.Follow;
+import com.paf.model.Post;
+import com.paf.model.Timeline;
+import com.paf.model.TimelineEntry;
+import com.paf.model.User;
+import com.paf.repo.FollowRepository;
+import com.paf.repo.PostRepository;
+import com.paf.repo.TimelineRepository;
+import com.paf.repo.UserRepository;
+import com.paf.service.CommentService;
+import com.paf.service.TimelineService;
+import com.paf.util.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Home timeline of followed users. Posts by ordinary authors are pushed into each
+ * follower's capped {@link Timeline} document when they are created. Authors with
+ * at least {@code paf.timeline.fanout-threshold} followers are skipped on write;
+ * their recent posts are read from {@code posts} and merged in when a timeline is
+ * requested. Both sides decide who is a celebrity from the same periodically
+ * refreshed set, and an author who crosses the threshold can have posts in both
+ * places, so candidates are merged by post id.
+ */
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final int FANOUT_BATCH_SIZE = 1000;
+    private static final long CELEBRITY_REFRESH_MILLIS = 60_000;
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TimelineEntry::getPostId, Comparator.reverseOrder());
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Value("${paf.timeline.max-entries:800}")
+    private int maxEntries;
+
+    @Value("${paf.timeline.fanout-threshold:10000}")
+    private int fanoutThreshold;
+
+    private volatile Set<String> celebrityIds = Set.of();
+    private volatile long celebrityIdsLoadedAt;
+
+    @Async
+    @Override
+    public void fanOut(Post post) {
+        if (isCelebrity(post.getUserId())) {
+            return;
+        }
+        TimelineEntry entry = new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+        timelineRepository.pushEntry(List.of(post.getUserId()), entry, maxEntries);
+
+        try (Stream<Follow> followers = followRepository.streamByFolloweeId(post.getUserId())) {
+            List<String> batch = new ArrayList<>(FANOUT_BATCH_SIZE);
+            Iterator<Follow> iterator = followers.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next().getFollowerId());
+                if (batch.size() == FANOUT_BATCH_SIZE) {
+                    timelineRepository.pushEntry(batch, entry, maxEntries);
+                    batch.clear();
+                }
+            }
+            timelineRepository.pushEntry(batch, entry, maxEntries);
+        }
+    }
+
+    @Override
+    public CursorPageDTO<Post> getTimeline(String userId, String after, Integer limit, boolean includeComments) {
+        int pageSize = Cursor.clampLimit(limit);
+        Cursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            cursor = Cursor.decode(after);
+        }
+
+        Map<String, TimelineEntry> candidates = new LinkedHashMap<>();
+        List<TimelineEntry> pushed = timelineRepository.findById(userId)
+                .map(Timeline::getEntries)
+                .orElse(List.of());
+        int pushedTaken = 0;
+        for (TimelineEntry entry : pushed) {
+            if (isAfter(entry, cursor)) {
+                candidates.put(entry.getPostId(), entry);
+                if (++pushedTaken == pageSize) {
+                    break;
+                }
+            }
+        }
+
+        // pulled entries replace pushed ones, so an author's posts from before they
+        // crossed the threshold are not listed twice
+        Map<String, Post> pulledPosts = pullCelebrityPosts(userId, cursor, pageSize);
+        for (Post post : pulledPosts.values()) {
+            TimelineEntry entry = new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+            if (isAfter(entry, cursor)) {
+                candidates.put(entry.getPostId(), entry);
+            }
+        }
+
+        List<TimelineEntry> page = candidates.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(pageSize)
+                .toList();
+
+        List<String> missing = page.stream()
+                .map(TimelineEntry::getPostId)
+                .filter(postId -> !pulledPosts.containsKey(postId))
+                .toList();
+        Map<String, Post> postsById = postRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        postsById.putAll(pulledPosts);
+
+        List<Post> posts = new ArrayList<>();
+        for (TimelineEntry entry : page) {
+            Post post = postsById.get(entry.getPostId());
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        if (includeComments) {
+            Map<String, List<Comment>> comments = commentService.getCommentsForPosts(posts.stream().map(Post::getId).toList());
+            for (Post post : posts) {
+                post.setComments(comments.getOrDefault(post.getId(), new ArrayList<>()));
+            }
+        }
+
+        String nextCursor = null;
+        if (page.size() == pageSize) {
+            TimelineEntry last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new CursorPageDTO<>(posts, nextCursor);
+    }
+
+    @Override
+    public void removeAuthor(String userId, String authorId) {
+        timelineRepository.removeAuthor(userId, authorId);
+    }
+
+    private Map<String, Post> pullCelebrityPosts(String userId, Cursor cursor, int pageSize) {
+        Set<String> celebrities = celebrityIds();
+        if (celebrities.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> authors = new HashSet<>();
+        if (celebrities.contains(userId)) {
+            authors.add(userId);
+        }
+        for (Follow follow : followRepository.findByFollowerIdAndFolloweeIdIn(userId, celebrities)) {
+            authors.add(follow.getFolloweeId());
+        }
+        if (authors.isEmpty()) {
+            return Map.of();
+        }
+
+        Instant upTo = cursor != null ? cursor.getTimestamp() : Instant.now();
+        PageRequest page = PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return postRepository.findByUserIdInAndCreatedAtLessThanEqual(authors, upTo, page).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+    }
+
+    private boolean isAfter(TimelineEntry entry, Cursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        if (entry.getCreatedAt() == null) {
+            return false;
+        }
+        int byTime = entry.getCreatedAt().compareTo(cursor.getTimestamp());
+        return byTime < 0 || (byTime == 0 && entry.getPostId().compareTo(cursor.getId()) < 0);
+    }
+
+    private boolean isCelebrity(String userId) {
+        return celebrityIds().contains(userId);
+    }
+
+    private Set<String> celebrityIds() {
+        long now = System.currentTimeMillis();
+        if (now - celebrityIdsLoadedAt > CELEBRITY_REFRESH_MILLIS) {
+            celebrityIds = userRepository.findIdsByFollowersCountAtLeast(fanoutThreshold).stream()
+                    .map(User::getId)
+                    .collect(Collectors.toUnmodifiableSet());
+            celebrityIdsLoadedAt = now;
+        }
+        return celebrityIds;
+    }
+}
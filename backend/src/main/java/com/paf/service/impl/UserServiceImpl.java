@@ -1,41 +1,69 @@
 package com.paf.service.impl;
 
+import com.paf.DTO.CursorPageDTO;
 import com.paf.DTO.ProfileUpdateDTO;
 import com.paf.DTO.UserDTO;
+import com.paf.DTO.UserMapper;
 import com.paf.DTO.UserResDTO;
+import com.paf.cache.UserCache;
+import com.paf.config.UserNameNormalizer;
+import com.paf.model.DeletionJob;
+import com.paf.model.Follow;
 import com.paf.model.RegistrationSource;
 import com.paf.model.User;
+import com.paf.repo.FollowRepository;
 import com.paf.repo.UserRepository;
-import org.springframework.beans.BeanUtils;
+import com.paf.util.Cursor;
+import com.paf.util.ETag;
+import com.paf.util.NameCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.paf.service.CascadeDeleteService;
+import com.paf.service.TimelineService;
 import com.paf.service.UserService;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    private UserDTO convertToDTO(User user) {
-        UserDTO userDTO = new UserDTO();
-        BeanUtils.copyProperties(user, userDTO);
-        return userDTO;
-    }
+    private static final Sort FOLLOW_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
 
     @Override
     public ResponseEntity<Object> createUser(User user) {
@@ -46,11 +74,8 @@ public class UserServiceImpl implements UserService {
             }
 
             user.setPassword(passwordEncoder.encode(user.getPassword()));
-            user.setFollowedUsers(new ArrayList<>());
             user.setSource(RegistrationSource.CREDENTIAL);
-            User savedUser = userRepository.save(user);
-            UserDTO savedUserDTO = new UserDTO();
-            BeanUtils.copyProperties(savedUser, savedUserDTO);
+            userRepository.save(user);
             return new ResponseEntity<>("Register Successfully", HttpStatus.OK);
         }
 
@@ -59,9 +84,7 @@ public class UserServiceImpl implements UserService {
             String email = user.getEmail();
             if (userRepository.existsByEmail(email)) {
                 User googleUser = userRepository.findByEmail(email);
-                UserResDTO userDto = new UserResDTO();
-                BeanUtils.copyProperties(googleUser, userDto);
-                return  new ResponseEntity<>(userDto, HttpStatus.OK);
+                return  new ResponseEntity<>(UserMapper.toUserResDTO(googleUser), HttpStatus.OK);
             }
 
             User googleUser = new User();
@@ -71,9 +94,7 @@ public class UserServiceImpl implements UserService {
             googleUser.setSource(RegistrationSource.GOOGLE);
             try {
                 userRepository.save(googleUser);
-                UserResDTO userDto = new UserResDTO();
-                BeanUtils.copyProperties(googleUser, userDto);
-                return new ResponseEntity<>(userDto, HttpStatus.OK);
+                return new ResponseEntity<>(UserMapper.toUserResDTO(googleUser), HttpStatus.OK);
             } catch (DataIntegrityViolationException e) {
                 return new ResponseEntity<>("Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
             }
@@ -84,72 +105,131 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO getUserById(String userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isPresent()) {
-            UserDTO userDTO = new UserDTO();
-            BeanUtils.copyProperties(optionalUser.get(), userDTO);
-            return userDTO;
-        }
-        return null;
+        return userCache.findById(userId)
+                .map(UserMapper::toUserDTO)
+                .orElse(null);
+    }
+
+    @Override
+    public String getUserETag(String userId) {
+        return userCache.findById(userId)
+                .map(user -> ETag.of(user.getId(), user.getVersion()))
+                .orElse(null);
     }
 
     @Override
     public List<UserDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userRepository.findAllProjectedBy();
     }
 
     @Override
     public List<UserDTO> getActiveUsers() {
-        List<User> users = userRepository.findByActiveTrue();
-        return users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userRepository.findByActiveTrue();
     }
 
     @Override
-    public ResponseEntity<Object> followUser(String userId, String followedUserId) {
-        try {
-            User user= userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id " + userId));
+    public CursorPageDTO<UserDTO> getUserDirectory(String query, Boolean active, RegistrationSource source, String after, Integer limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        String afterName = null;
+        String afterId = null;
+        if (after != null && !after.isBlank()) {
+            NameCursor cursor = NameCursor.decode(after);
+            afterName = cursor.getName();
+            afterId = cursor.getId();
+        }
 
-            User followUser = userRepository.findById(followedUserId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + followedUserId));
+        String prefix = query == null ? null : UserNameNormalizer.normalize(query);
+        List<UserDTO> users = userRepository.findDirectoryPage(prefix, active, source, afterName, afterId, pageSize);
 
-            if (user.getFollowedUsers() == null) {
-                user.setFollowedUsers(new ArrayList<>());
-            }
+        String nextCursor = null;
+        if (users.size() == pageSize) {
+            UserDTO last = users.get(users.size() - 1);
+            nextCursor = new NameCursor(UserNameNormalizer.normalize(last.getName()), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(users, nextCursor);
+    }
 
-            if (followUser.getFollowingUsers() == null) {
-                followUser.setFollowingUsers(new ArrayList<>());
+    @Override
+    public ResponseEntity<Object> followUser(String userId, String followedUserId) {
+        try {
+            if (!userCache.exists(userId)) {
+                throw new RuntimeException("User not found with id " + userId);
+            }
+            if (!userCache.exists(followedUserId)) {
+                throw new RuntimeException("User not found with id: " + followedUserId);
             }
 
-
-            if (user.getFollowedUsers().contains(followedUserId)) {
-                user.getFollowedUsers().remove(followedUserId);
-                followUser.getFollowingUsers().remove(userId);
-                user.setFollowersCount(user.getFollowersCount() - 1);
-                followUser.setFollowingCount(followUser.getFollowingCount() -1);
-                userRepository.save(user);
-                userRepository.save(followUser);
-                return new ResponseEntity<>(user, HttpStatus.OK);
+            // The unique (followerId, followeeId) index decides the toggle; counters
+            // only move when the edge was actually removed or inserted.
+            if (followRepository.deleteByFollowerIdAndFolloweeId(userId, followedUserId) > 0) {
+                userRepository.adjustFollowCounts(userId, followedUserId, -1);
+                timelineService.removeAuthor(userId, followedUserId);
             } else {
-                user.getFollowedUsers().add(followedUserId);
-                followUser.getFollowingUsers().add(userId);
-                user.setFollowersCount(user.getFollowersCount() + 1);
-                followUser.setFollowingCount(followUser.getFollowingCount() + 1);
-                userRepository.save(user);
-                userRepository.save(followUser);
-                return new ResponseEntity<>(user, HttpStatus.OK);
+                try {
+                    followRepository.insert(new Follow(null, userId, followedUserId, Instant.now()));
+                    userRepository.adjustFollowCounts(userId, followedUserId, 1);
+                } catch (DuplicateKeyException e) {
+                    // a concurrent request created the same edge
+                }
             }
+            userCache.invalidate(userId, followedUserId);
+
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id " + userId));
+            return new ResponseEntity<>(UserMapper.toUserDTO(user), HttpStatus.OK);
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.error("Follow toggle of {} by {} failed", followedUserId, userId, e);
             return new ResponseEntity<>("Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @Override
+    public CursorPageDTO<UserResDTO> getFollowers(String userId, String after, Integer limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, FOLLOW_SORT);
+        List<Follow> edges;
+        if (after == null || after.isBlank()) {
+            edges = followRepository.findByFolloweeId(userId, page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            edges = followRepository.findFollowersAfter(userId, cursor.getTimestamp(), cursor.objectId(), page);
+        }
+        return toFollowPage(edges, pageSize, Follow::getFollowerId);
+    }
+
+    @Override
+    public CursorPageDTO<UserResDTO> getFollowing(String userId, String after, Integer limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize, FOLLOW_SORT);
+        List<Follow> edges;
+        if (after == null || after.isBlank()) {
+            edges = followRepository.findByFollowerId(userId, page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            edges = followRepository.findFollowingAfter(userId, cursor.getTimestamp(), cursor.objectId(), page);
+        }
+        return toFollowPage(edges, pageSize, Follow::getFolloweeId);
+    }
+
+    private CursorPageDTO<UserResDTO> toFollowPage(List<Follow> edges, int pageSize, Function<Follow, String> otherSide) {
+        List<String> ids = edges.stream().map(otherSide).toList();
+        Map<String, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserResDTO> users = ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(UserMapper::toUserResDTO)
+                .toList();
+
+        String nextCursor = null;
+        if (edges.size() == pageSize) {
+            Follow last = edges.get(edges.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(users, nextCursor);
+    }
+
 
     @Override
     public ResponseEntity<Object> loginUser(String email, String password) {
@@ -158,10 +238,9 @@ public class UserServiceImpl implements UserService {
             return ResponseEntity.badRequest().body("User not found");
         }
         if (passwordEncoder.matches(password, user.getPassword())) {
-            UserResDTO userDto = new UserResDTO();
-            BeanUtils.copyProperties(user, userDto);
-            user.setActive(true);
-            userRepository.save(user);
+            UserResDTO userDto = UserMapper.toUserResDTO(user);
+            userRepository.setActive(user.getId(), true);
+            userCache.invalidate(user.getId());
             return new ResponseEntity<>(userDto, HttpStatus.OK);
     
         } else {
@@ -184,41 +263,39 @@ public class UserServiceImpl implements UserService {
                 }
                 
                 // Update only the fields that are provided and not empty
-                if (profileUpdate.getName() != null && !profileUpdate.getName().trim().isEmpty()) {
-                    existingUser.setName(profileUpdate.getName());
-                }
-                if (profileUpdate.getEmail() != null && !profileUpdate.getEmail().trim().isEmpty()) {
-                    existingUser.setEmail(profileUpdate.getEmail());
+                String password = hasText(profileUpdate.getPassword())
+                        ? passwordEncoder.encode(profileUpdate.getPassword()) : null;
+                User updatedUser = userRepository.updateProfile(userId,
+                        hasText(profileUpdate.getName()) ? profileUpdate.getName() : null,
+                        hasText(profileUpdate.getEmail()) ? profileUpdate.getEmail() : null,
+                        password,
+                        hasText(profileUpdate.getProfileImage()) ? profileUpdate.getProfileImage() : null);
+                if (updatedUser == null) {
+                    return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
                 }
-                if (profileUpdate.getPassword() != null && !profileUpdate.getPassword().trim().isEmpty()) {
-                    existingUser.setPassword(passwordEncoder.encode(profileUpdate.getPassword()));
-                }
-                if (profileUpdate.getProfileImage() != null && !profileUpdate.getProfileImage().trim().isEmpty()) {
-                    existingUser.setProfileImage(profileUpdate.getProfileImage());
-                }
-                
-                User updatedUser = userRepository.save(existingUser);
+                userCache.invalidate(userId);
                 
-                // Create response DTO with all necessary fields
-                UserDTO userDTO = new UserDTO();
-                BeanUtils.copyProperties(updatedUser, userDTO);
-                
-                return new ResponseEntity<>(userDTO, HttpStatus.OK);
+                return new ResponseEntity<>(UserMapper.toUserDTO(updatedUser), HttpStatus.OK);
             }
             return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Profile update of user {} failed", userId, e);
             return new ResponseEntity<>("Error updating profile: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
     @Override
     public ResponseEntity<Object> deleteUser(String userId) {
         try {
             Optional<User> optionalUser = userRepository.findById(userId);
             if (optionalUser.isPresent()) {
-                userRepository.deleteById(userId);
-                return new ResponseEntity<>("User deleted successfully", HttpStatus.OK);
+                DeletionJob job = cascadeDeleteService.deleteUser(userId);
+                userCache.invalidate(userId);
+                return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
             }
             return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -228,19 +305,21 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public ResponseEntity<Object> activateUser(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setActive(true);
-        userRepository.save(user);
-        return ResponseEntity.ok(convertToDTO(user));
+        User user = userRepository.setActive(userId, true);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        userCache.invalidate(userId);
+        return ResponseEntity.ok(UserMapper.toUserDTO(user));
     }
 
     @Override
     public ResponseEntity<Object> deactivateUser(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setActive(false);
-        userRepository.save(user);
-        return ResponseEntity.ok(convertToDTO(user));
+        User user = userRepository.setActive(userId, false);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        userCache.invalidate(userId);
+        return ResponseEntity.ok(UserMapper.toUserDTO(user));
     }
 }
@@ -3,9 +3,9 @@ package com.paf.service.impl;
 import java.util.List;
 import java.util.Optional;
 
+import com.paf.cache.UserCache;
 import com.paf.model.User;
 import com.paf.model.WorkoutPlan;
-import com.paf.repo.UserRepository;
 import com.paf.repo.WorkoutPlanRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -19,7 +19,7 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
     private WorkoutPlanRepository workoutPlanRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public List<WorkoutPlan> getAllWorkoutPlans() {
@@ -33,7 +33,7 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
 
     @Override
     public WorkoutPlan createWorkoutPlan(WorkoutPlan workoutPlan) {
-        Optional<User> userOptional = userRepository.findById(workoutPlan.getUserId());
+        Optional<User> userOptional = userCache.findById(workoutPlan.getUserId());
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             workoutPlan.setUserId(user.getId());
@@ -49,7 +49,7 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
     @Override
     public WorkoutPlan updateWorkoutPlan(String workoutPlanId, WorkoutPlan workoutPlan) {
         if (workoutPlanRepository.existsById(workoutPlanId)) {
-            Optional<User> userOptional = userRepository.findById(workoutPlan.getUserId());
+            Optional<User> userOptional = userCache.findById(workoutPlan.getUserId());
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
                 workoutPlan.setUserId(user.getId());
@@ -0,0 +1,285 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.PersonalBestsDTO;
+import com.paf.DTO.WorkoutProgressDTO;
+import com.paf.DTO.WorkoutStreakDTO;
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+import com.paf.repo.WorkoutRollupRepository;
+import com.paf.repo.WorkoutStatusRepository;
+import com.paf.service.WorkoutProgressService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class WorkoutProgressServiceImpl implements WorkoutProgressService {
+
+    private static final int DEFAULT_BUCKETS = 12;
+    private static final Sort BY_PERIOD = Sort.by("periodStart");
+
+    @Autowired
+    private WorkoutRollupRepository workoutRollupRepository;
+
+    @Autowired
+    private WorkoutStatusRepository workoutStatusRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void recordCreated(WorkoutStatus status) {
+        if (status.getDate() == null) {
+            return;
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            // a racing delete of an older version may have been applied first
+            WorkoutRollup rollup = workoutRollupRepository.apply(granularity, status, 1);
+            if (rollup.getCount() <= 0) {
+                workoutRollupRepository.deleteIfEmpty(rollup.getId());
+            }
+        }
+    }
+
+    @Override
+    public void recordUpdated(WorkoutStatus before, WorkoutStatus after) {
+        if (before != null && Objects.equals(before.getUserId(), after.getUserId())
+                && Objects.equals(before.getDate(), after.getDate())
+                && before.getDistance() == after.getDistance()
+                && before.getPushUps() == after.getPushUps()
+                && before.getWeight() == after.getWeight()) {
+            return;
+        }
+        if (before != null) {
+            recordDeleted(before);
+        }
+        recordCreated(after);
+    }
+
+    @Override
+    public void recordDeleted(WorkoutStatus status) {
+        if (status.getDate() == null) {
+            return;
+        }
+        // days first: week and month extremes are recomputed from the day buckets
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            WorkoutRollup rollup = workoutRollupRepository.apply(granularity, status, -1);
+            if (rollup.getCount() <= 0) {
+                workoutRollupRepository.deleteIfEmpty(rollup.getId());
+            } else if (heldExtreme(rollup, status)) {
+                recomputeExtremes(rollup);
+            }
+        }
+    }
+
+    @Override
+    public List<WorkoutProgressDTO> getProgress(String userId, RollupGranularity granularity, LocalDate from, LocalDate to) {
+        List<LocalDate> periods = granularity.periods(from, to, DEFAULT_BUCKETS);
+        Map<LocalDate, WorkoutRollup> rollups = new HashMap<>();
+        workoutRollupRepository.findByUserIdAndGranularityAndPeriodStartBetween(userId, granularity,
+                        Range.closed(periods.get(0), periods.get(periods.size() - 1)), BY_PERIOD)
+                .forEach(rollup -> rollups.put(rollup.getPeriodStart(), rollup));
+
+        // empty periods are returned as zero buckets so charts get an evenly spaced series
+        return periods.stream()
+                .map(period -> rollups.containsKey(period)
+                        ? toProgress(rollups.get(period))
+                        : new WorkoutProgressDTO(period, 0, 0, 0, 0, 0, 0, 0, null, null, null))
+                .toList();
+    }
+
+    @Override
+    public PersonalBestsDTO getPersonalBests(String userId) {
+        List<WorkoutRollup> months = workoutRollupRepository.findByUserIdAndGranularity(userId, RollupGranularity.MONTH, BY_PERIOD);
+        PersonalBestsDTO bests = new PersonalBestsDTO();
+        bests.setWorkouts(months.stream().mapToInt(WorkoutRollup::getCount).sum());
+        if (months.isEmpty()) {
+            return bests;
+        }
+
+        WorkoutRollup distance = best(months, WorkoutRollup::getDistanceMax, Comparator.naturalOrder());
+        bests.setMaxDistance(distance.getDistanceMax());
+        bests.setMaxDistanceDate(firstDayWith(distance, WorkoutRollup::getDistanceMax));
+
+        WorkoutRollup pushUps = best(months, WorkoutRollup::getPushUpsMax, Comparator.naturalOrder());
+        bests.setMaxPushUps(pushUps.getPushUpsMax());
+        bests.setMaxPushUpsDate(firstDayWith(pushUps, WorkoutRollup::getPushUpsMax));
+
+        WorkoutRollup minWeight = best(months, WorkoutRollup::getWeightMin, Comparator.reverseOrder());
+        if (minWeight != null) {
+            bests.setMinWeight(minWeight.getWeightMin());
+            bests.setMinWeightDate(firstDayWith(minWeight, WorkoutRollup::getWeightMin));
+        }
+        WorkoutRollup maxWeight = best(months, WorkoutRollup::getWeightMax, Comparator.naturalOrder());
+        if (maxWeight != null) {
+            bests.setMaxWeight(maxWeight.getWeightMax());
+            bests.setMaxWeightDate(firstDayWith(maxWeight, WorkoutRollup::getWeightMax));
+        }
+        return bests;
+    }
+
+    @Override
+    public WorkoutStreakDTO getStreaks(String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("granularity").is(RollupGranularity.DAY))
+                .with(BY_PERIOD);
+        query.fields().include("periodStart");
+
+        WorkoutStreakDTO streaks = new WorkoutStreakDTO();
+        LocalDate runStart = null;
+        LocalDate previous = null;
+        int run = 0;
+        try (Stream<WorkoutRollup> days = mongoTemplate.stream(query, WorkoutRollup.class)) {
+            for (WorkoutRollup day : (Iterable<WorkoutRollup>) days::iterator) {
+                LocalDate date = day.getPeriodStart();
+                if (previous != null && previous.plusDays(1).equals(date)) {
+                    run++;
+                } else {
+                    run = 1;
+                    runStart = date;
+                }
+                if (run > streaks.getLongestStreak()) {
+                    streaks.setLongestStreak(run);
+                    streaks.setLongestStreakStart(runStart);
+                }
+                previous = date;
+            }
+        }
+
+        streaks.setLastWorkoutDate(previous);
+        // a streak is still alive until a whole day passes without a workout
+        if (previous != null && !previous.isBefore(LocalDate.now().minusDays(1))) {
+            streaks.setCurrentStreak(run);
+        }
+        return streaks;
+    }
+
+    @Override
+    public void rebuild(String userId) {
+        Map<String, WorkoutRollup> rollups = new LinkedHashMap<>();
+        Query query = Query.query(Criteria.where("userId").is(userId).and("date").ne(null));
+        try (Stream<WorkoutStatus> statuses = mongoTemplate.stream(query, WorkoutStatus.class)) {
+            statuses.forEach(status -> {
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    LocalDate periodStart = granularity.periodStart(status.getDate());
+                    add(rollups.computeIfAbsent(WorkoutRollup.id(userId, granularity, periodStart),
+                            id -> emptyRollup(id, userId, granularity, periodStart)), status);
+                }
+            });
+        }
+        workoutRollupRepository.replaceAll(userId, new ArrayList<>(rollups.values()));
+    }
+
+    private void recomputeExtremes(WorkoutRollup rollup) {
+        WorkoutRollup fresh = emptyRollup(rollup.getId(), rollup.getUserId(), rollup.getGranularity(), rollup.getPeriodStart());
+        if (rollup.getGranularity() == RollupGranularity.DAY) {
+            workoutStatusRepository.findByUserIdAndDate(rollup.getUserId(), rollup.getPeriodStart())
+                    .forEach(status -> add(fresh, status));
+        } else {
+            days(rollup).forEach(day -> merge(fresh, day));
+        }
+        workoutRollupRepository.setExtremes(rollup.getId(), fresh.getDistanceMax(), fresh.getPushUpsMax(),
+                fresh.getWeightMin(), fresh.getWeightMax());
+    }
+
+    private List<WorkoutRollup> days(WorkoutRollup rollup) {
+        LocalDate start = rollup.getPeriodStart();
+        return workoutRollupRepository.findByUserIdAndGranularityAndPeriodStartBetween(rollup.getUserId(), RollupGranularity.DAY,
+                Range.closed(start, rollup.getGranularity().periodEnd(start)), BY_PERIOD);
+    }
+
+    private LocalDate firstDayWith(WorkoutRollup month, Function<WorkoutRollup, Integer> metric) {
+        Integer value = metric.apply(month);
+        return days(month).stream()
+                .filter(day -> Objects.equals(metric.apply(day), value))
+                .map(WorkoutRollup::getPeriodStart)
+                .findFirst()
+                .orElse(month.getPeriodStart());
+    }
+
+    // the earliest rollup holding the highest value by the given order, or null if none has one
+    private static WorkoutRollup best(List<WorkoutRollup> rollups, Function<WorkoutRollup, Integer> metric,
+            Comparator<Integer> order) {
+        WorkoutRollup best = null;
+        for (WorkoutRollup rollup : rollups) {
+            Integer value = metric.apply(rollup);
+            if (value != null && (best == null || order.compare(value, metric.apply(best)) > 0)) {
+                best = rollup;
+            }
+        }
+        return best;
+    }
+
+    private static boolean heldExtreme(WorkoutRollup rollup, WorkoutStatus status) {
+        if (status.getDistance() >= rollup.getDistanceMax() || status.getPushUps() >= rollup.getPushUpsMax()) {
+            return true;
+        }
+        if (status.getWeight() <= 0) {
+            return false;
+        }
+        return rollup.getWeightCount() <= 0 || rollup.getWeightMin() == null
+                || status.getWeight() <= rollup.getWeightMin() || status.getWeight() >= rollup.getWeightMax();
+    }
+
+    private static WorkoutRollup emptyRollup(String id, String userId, RollupGranularity granularity, LocalDate periodStart) {
+        WorkoutRollup rollup = new WorkoutRollup();
+        rollup.setId(id);
+        rollup.setUserId(userId);
+        rollup.setGranularity(granularity);
+        rollup.setPeriodStart(periodStart);
+        return rollup;
+    }
+
+    private static void add(WorkoutRollup rollup, WorkoutStatus status) {
+        rollup.setCount(rollup.getCount() + 1);
+        rollup.setDistanceSum(rollup.getDistanceSum() + status.getDistance());
+        rollup.setDistanceMax(Math.max(rollup.getDistanceMax(), status.getDistance()));
+        rollup.setPushUpsSum(rollup.getPushUpsSum() + status.getPushUps());
+        rollup.setPushUpsMax(Math.max(rollup.getPushUpsMax(), status.getPushUps()));
+        if (status.getWeight() > 0) {
+            addWeight(rollup, 1, status.getWeight(), status.getWeight(), status.getWeight());
+        }
+    }
+
+    private static void merge(WorkoutRollup into, WorkoutRollup day) {
+        into.setCount(into.getCount() + day.getCount());
+        into.setDistanceSum(into.getDistanceSum() + day.getDistanceSum());
+        into.setDistanceMax(Math.max(into.getDistanceMax(), day.getDistanceMax()));
+        into.setPushUpsSum(into.getPushUpsSum() + day.getPushUpsSum());
+        into.setPushUpsMax(Math.max(into.getPushUpsMax(), day.getPushUpsMax()));
+        if (day.getWeightCount() > 0 && day.getWeightMin() != null) {
+            addWeight(into, day.getWeightCount(), day.getWeightSum(), day.getWeightMin(), day.getWeightMax());
+        }
+    }
+
+    private static void addWeight(WorkoutRollup rollup, int count, long sum, int min, int max) {
+        rollup.setWeightCount(rollup.getWeightCount() + count);
+        rollup.setWeightSum(rollup.getWeightSum() + sum);
+        rollup.setWeightMin(rollup.getWeightMin() == null ? min : Math.min(rollup.getWeightMin(), min));
+        rollup.setWeightMax(rollup.getWeightMax() == null ? max : Math.max(rollup.getWeightMax(), max));
+    }
+
+    private static WorkoutProgressDTO toProgress(WorkoutRollup rollup) {
+        int count = rollup.getCount();
+        Double avgWeight = rollup.getWeightCount() > 0 ? (double) rollup.getWeightSum() / rollup.getWeightCount() : null;
+        return new WorkoutProgressDTO(rollup.getPeriodStart(), count,
+                rollup.getDistanceSum(), (double) rollup.getDistanceSum() / count, rollup.getDistanceMax(),
+                rollup.getPushUpsSum(), (double) rollup.getPushUpsSum() / count, rollup.getPushUpsMax(),
+                avgWeight, rollup.getWeightMin(), rollup.getWeightMax());
+    }
+}
@@ -3,10 +3,11 @@ package com.paf.service.impl;
 import java.util.List;
 import java.util.Optional;
 
+import com.paf.cache.UserCache;
 import com.paf.model.User;
 import com.paf.model.WorkoutStatus;
-import com.paf.repo.UserRepository;
 import com.paf.repo.WorkoutStatusRepository;
+import com.paf.service.WorkoutProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +20,10 @@ public class WorkoutStatusServiceImpl implements WorkoutStatusService {
     private WorkoutStatusRepository workoutStatusRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Autowired
+    private WorkoutProgressService workoutProgressService;
 
 
     @Override
@@ -34,46 +38,47 @@ public class WorkoutStatusServiceImpl implements WorkoutStatusService {
 
     @Override
     public WorkoutStatus createWorkoutStatus(WorkoutStatus workoutStatus) {
-        Optional<User> userOptional = userRepository.findById(workoutStatus.getUserId());
+        Optional<User> userOptional = userCache.findById(workoutStatus.getUserId());
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             workoutStatus.setUserId(user.getId());
             workoutStatus.setUsername(user.getName());
             workoutStatus.setUserProfile(user.getProfileImage());
-            return workoutStatusRepository.save(workoutStatus);
+            WorkoutStatus saved = workoutStatusRepository.save(workoutStatus);
+            workoutProgressService.recordCreated(saved);
+            return saved;
         } else {
             return null;
         }
     }
 
+    // the replace and remove hand back the document they changed, so when two requests race
+    // on the same status each rollup delta starts from what that request actually overwrote
     @Override
     public WorkoutStatus updateWorkoutStatus(String statusId, WorkoutStatus workoutStatus) {
-
-        if (workoutStatusRepository.existsById(statusId)) {
-            Optional<User> userOptional = userRepository.findById(workoutStatus.getUserId());
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-                workoutStatus.setUserId(user.getId());
-                workoutStatus.setUsername(user.getName());
-                workoutStatus.setUserProfile(user.getProfileImage());
-                workoutStatus.setStatusId(statusId);
-                workoutStatus.setDistance(workoutStatus.getDistance());
-                workoutStatus.setPushUps(workoutStatus.getPushUps());
-                workoutStatus.setWeight(workoutStatus.getWeight());
-                workoutStatus.setDescription(workoutStatus.getDescription());
-                workoutStatus.setDate(workoutStatus.getDate());
-                return workoutStatusRepository.save(workoutStatus);
-            } else {
-                return null;
-            }
-        } else {
+        Optional<User> userOptional = userCache.findById(workoutStatus.getUserId());
+        if (userOptional.isEmpty()) {
             return null;
         }
+        User user = userOptional.get();
+        workoutStatus.setUserId(user.getId());
+        workoutStatus.setUsername(user.getName());
+        workoutStatus.setUserProfile(user.getProfileImage());
+        workoutStatus.setStatusId(statusId);
+        WorkoutStatus previous = workoutStatusRepository.replace(workoutStatus);
+        if (previous == null) {
+            return null;
+        }
+        workoutProgressService.recordUpdated(previous, workoutStatus);
+        return workoutStatus;
     }
 
     @Override
     public void deleteWorkoutStatus(String statusId) {
-        workoutStatusRepository.deleteById(statusId);
+        WorkoutStatus removed = workoutStatusRepository.removeById(statusId);
+        if (removed != null) {
+            workoutProgressService.recordDeleted(removed);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.paf.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over a (timestamp, id) sort key. Encoded as url-safe
+ * base64 so clients treat it as a token rather than building it themselves.
+ * Every keyset here ends in a document's ObjectId, so {@link #decode} rejects
+ * any other id with the same {@link IllegalArgumentException} as a malformed
+ * token, which the controllers answer with 400.
+ */
+@Data
+@AllArgsConstructor
+public class Cursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private Instant timestamp;
+    private String id;
+
+    public String encode() {
+        String raw = timestamp.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ObjectId objectId() {
+        return new ObjectId(id);
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String id = raw.substring(separator + 1);
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException();
+            }
+            return new Cursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
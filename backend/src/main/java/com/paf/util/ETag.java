@@ -0,0 +1,49 @@
+package com.paf.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Entity tags built from document ids and their version fields, so a
+ * conditional GET is answered before the documents are loaded or serialized.
+ * A list's tag is a digest over its members in order; anything that adds,
+ * removes, reorders or updates a member changes it. The tags are weak because
+ * they name a version rather than bytes, and Tomcat only gzips responses whose
+ * ETag is weak; If-None-Match compares weakly either way.
+ */
+public final class ETag {
+
+    private final MessageDigest digest;
+
+    private ETag() {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String of(String id, Long version) {
+        return "W/\"" + id + "-" + (version == null ? 0 : version) + "\"";
+    }
+
+    public static ETag digest() {
+        return new ETag();
+    }
+
+    public ETag add(String id, Long version) {
+        return add(id + ":" + (version == null ? 0 : version));
+    }
+
+    public ETag add(String part) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ';');
+        return this;
+    }
+
+    public String build() {
+        return "W/\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+    }
+}
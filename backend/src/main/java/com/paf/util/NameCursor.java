@@ -0,0 +1,38 @@
+package com.paf.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over a (name, id) sort key, the alphabetical counterpart
+ * of {@link Cursor}.
+ */
+@Data
+@AllArgsConstructor
+public class NameCursor {
+
+    private String name;
+    private String id;
+
+    public String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NameCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0 || !ObjectId.isValid(raw.substring(0, separator))) {
+                throw new IllegalArgumentException();
+            }
+            return new NameCursor(raw.substring(separator + 1), raw.substring(0, separator));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.paf;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.paf.config.MongoConfig;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+/**
+ * An in-memory MongoDB with a {@link MongoTemplate} mapped the way
+ * {@link MongoConfig} maps the application's, for tests that wire services by
+ * hand instead of starting Spring. Repositories are built directly from their
+ * interfaces; custom fragments are passed in. Auditing is not active, so tests
+ * set {@code createdAt} themselves.
+ */
+public class InMemoryMongo implements AutoCloseable {
+
+    private final MongoServer server;
+    private final MongoClient client;
+    private final MongoTemplate mongoTemplate;
+    private final MongoRepositoryFactory repositoryFactory;
+
+    public InMemoryMongo() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "paf-test");
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(factory, converter);
+        repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+    }
+
+    public MongoTemplate mongoTemplate() {
+        return mongoTemplate;
+    }
+
+    public <T> T repository(Class<T> type, Object... fragments) {
+        return repositoryFactory.getRepository(type, RepositoryFragments.just(fragments));
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        server.shutdown();
+    }
+}
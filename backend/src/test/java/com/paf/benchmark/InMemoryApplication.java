@@ -0,0 +1,76 @@
+package com.paf.benchmark;
+
+import com.paf.PafApplication;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * The application booted against an in-process MongoDB stand-in, so benchmarks
+ * call the real services, repositories and caches without a database server.
+ * JMH forks a JVM per benchmark and parameter combination, so each fork boots
+ * and seeds its own instance.
+ */
+final class InMemoryApplication implements AutoCloseable {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private final MongoServer server;
+    private final ConfigurableApplicationContext context;
+
+    private InMemoryApplication(MongoServer server, ConfigurableApplicationContext context) {
+        this.server = server;
+        this.context = context;
+    }
+
+    static InMemoryApplication start() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        String mongoUri = server.bindAndGetConnectionString() + "/paf-benchmark";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PafApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.data.mongodb.uri=" + mongoUri,
+                        "spring.security.oauth2.client.registration.google.client-id=benchmark",
+                        "spring.security.oauth2.client.registration.google.client-secret=benchmark",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        return new InMemoryApplication(server, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    MongoTemplate mongoTemplate() {
+        return context.getBean(MongoTemplate.class);
+    }
+
+    // raw inserts skip the entity mapping, which would dominate seeding a million posts
+    void insert(String collection, int count, IntFunction<Document> document) {
+        List<Document> batch = new ArrayList<>(Math.min(count, INSERT_BATCH));
+        for (int i = 0; i < count; i++) {
+            batch.add(document.apply(i));
+            if (batch.size() == INSERT_BATCH) {
+                mongoTemplate().getCollection(collection).insertMany(batch);
+                batch = new ArrayList<>(INSERT_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate().getCollection(collection).insertMany(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        server.shutdown();
+    }
+}
@@ -0,0 +1,316 @@
+package com.paf.benchmark;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.model.Post;
+import com.paf.model.RegistrationSource;
+import com.paf.service.PostService;
+import com.paf.service.UserService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer cost of the feed, like, follow and login paths, measured through
+ * the real services against the in-process MongoDB of {@link InMemoryApplication}.
+ * Absolute numbers include the stand-in's own query work and are only comparable
+ * between runs on the same machine; run with {@code -prof gc} for allocation rates.
+ * <p>
+ * {@code mvn -Pbenchmark -DskipTests verify} runs every benchmark and writes
+ * {@code target/jmh-result.json}; narrow a run with e.g.
+ * {@code -Djmh.args="ServiceHotPathBenchmark.likePost -p likes=10000"}.
+ * <p>
+ * The stand-in answers a find with every match in one reply, and the driver
+ * rejects replies over 48 MB, so {@code getAllPosts} is measured up to 100k
+ * bare posts and 10k posts with 100 likes each; larger unbounded lists need a
+ * real MongoDB. {@code getFeedFirstPage} replies with one page whatever the
+ * collection size and keeps its own state up to 1M posts. Each fork is pinned
+ * to a 4 GB heap so the 1M-post seed does not leave it GC-bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceHotPathBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+    // users that like and follow during the measurement; they must exist for the services' checks
+    private static final int ACTORS = 1000;
+
+    public abstract static class SeededFeed {
+
+        InMemoryApplication app;
+        PostService postService;
+
+        void seed(int posts, int likesPerPost) {
+            app = InMemoryApplication.start();
+            postService = app.bean(PostService.class);
+            List<String> likers = objectIds(likesPerPost);
+            Instant start = Instant.now().minusSeconds(posts);
+            app.insert("posts", posts, i -> post(new ObjectId(), start.plusSeconds(i), likers));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            app.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FeedState extends SeededFeed {
+
+        @Param({"1000", "10000", "100000"})
+        int posts;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            seed(posts, 0);
+        }
+    }
+
+    // getFeed replies with one page, so it is not bound by the reply limit
+    @State(Scope.Benchmark)
+    public static class PagedFeedState extends SeededFeed {
+
+        @Param({"1000", "10000", "100000", "1000000"})
+        int posts;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            seed(posts, 0);
+        }
+    }
+
+    // getAllPosts returns every post, so likes multiply the payload
+    @State(Scope.Benchmark)
+    public static class LikedFeedState extends SeededFeed {
+
+        @Param({"1000", "10000"})
+        int posts;
+
+        @Param({"100"})
+        int likesPerPost;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            seed(posts, likesPerPost);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LikeState {
+
+        @Param({"0", "100", "10000"})
+        int likes;
+
+        // posts are looked up by _id, so the collection size barely moves likePost; the array size does
+        @Param({"1000"})
+        int posts;
+
+        InMemoryApplication app;
+        PostService postService;
+        List<String> postIds;
+        List<String> actorIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            app = InMemoryApplication.start();
+            postService = app.bean(PostService.class);
+            actorIds = insertUsers(app, ACTORS);
+            List<String> likers = objectIds(likes);
+            postIds = objectIds(posts);
+            Instant start = Instant.now().minusSeconds(posts);
+            app.insert("posts", posts, i -> post(new ObjectId(postIds.get(i)), start.plusSeconds(i), likers));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            app.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FollowState {
+
+        @Param({"0", "1000", "100000"})
+        int followers;
+
+        InMemoryApplication app;
+        UserService userService;
+        List<String> actorIds;
+        String followeeId;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            app = InMemoryApplication.start();
+            userService = app.bean(UserService.class);
+            actorIds = insertUsers(app, ACTORS);
+            followeeId = actorIds.get(0);
+            app.mongoTemplate().getCollection("users").updateOne(new Document("_id", new ObjectId(followeeId)),
+                    new Document("$set", new Document("followersCount", followers)));
+            List<String> followerIds = objectIds(followers);
+            Date now = new Date();
+            app.insert("follows", followers, i -> new Document("_id", new ObjectId())
+                    .append("followerId", followerIds.get(i))
+                    .append("followeeId", followeeId)
+                    .append("createdAt", now));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            app.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LoginState {
+
+        @Param({"1000", "100000"})
+        int users;
+
+        InMemoryApplication app;
+        UserService userService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            app = InMemoryApplication.start();
+            userService = app.bean(UserService.class);
+            insertUsers(app, users);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            app.close();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public List<Post> getAllPosts(FeedState state) {
+        return state.postService.getAllPosts(false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public List<Post> getAllLikedPosts(LikedFeedState state) {
+        return state.postService.getAllPosts(false);
+    }
+
+    // the paginated feed, for comparison with the unbounded list at the sizes both cover
+    @Benchmark
+    public CursorPageDTO<Post> getFeedFirstPage(PagedFeedState state) {
+        return state.postService.getFeed(null, 20, false);
+    }
+
+    // each call toggles, so the liked-by array stays around its seeded size
+    @Benchmark
+    public ResponseEntity<Object> likePost(LikeState state) {
+        return state.postService.likePost(random(state.postIds), random(state.actorIds));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> followUser(FollowState state) {
+        String followerId = random(state.actorIds);
+        return state.userService.followUser(followerId.equals(state.followeeId) ? state.actorIds.get(1) : followerId,
+                state.followeeId);
+    }
+
+    // dominated by the BCrypt check, which is meant to be slow
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ResponseEntity<Object> loginUser(LoginState state) {
+        int user = ThreadLocalRandom.current().nextInt(state.users);
+        return state.userService.loginUser(email(user), PASSWORD);
+    }
+
+    private static List<String> insertUsers(InMemoryApplication app, int count) {
+        // one hash for everyone: encoding is as slow as checking and would dominate seeding
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<String> ids = objectIds(count);
+        app.insert("users", count, i -> new Document("_id", new ObjectId(ids.get(i)))
+                .append("name", "benchmark user " + i)
+                .append("nameLower", "benchmark user " + i)
+                .append("email", email(i))
+                .append("password", hash)
+                .append("source", RegistrationSource.CREDENTIAL.name())
+                .append("followersCount", 0)
+                .append("followingCount", 0)
+                .append("active", false));
+        return ids;
+    }
+
+    private static Document post(ObjectId id, Instant createdAt, List<String> likedBy) {
+        Date date = Date.from(createdAt);
+        return new Document("_id", id)
+                .append("userId", new ObjectId().toHexString())
+                .append("title", "benchmark post")
+                .append("description", "seeded by ServiceHotPathBenchmark")
+                .append("createdAt", date)
+                .append("date", date)
+                .append("likeCount", likedBy.size())
+                .append("likedBy", likedBy)
+                .append("commentCount", 0)
+                .append("latestComments", List.of());
+    }
+
+    private static List<String> objectIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new ObjectId().toHexString());
+        }
+        return ids;
+    }
+
+    private static String email(int user) {
+        return "benchmark" + user + "@example.com";
+    }
+
+    private static String random(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // arguments are JMH's own (-p, -f, -prof ...); results go to target/jmh-result.json unless -rff says otherwise
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse("target/jmh-result.json"));
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(ServiceHotPathBenchmark.class.getSimpleName());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.paf.benchmark;
+
+import com.paf.DTO.UserDTO;
+import com.paf.DTO.UserMapper;
+import com.paf.model.RegistrationSource;
+import com.paf.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of building the GET /users response: decoding full user
+ * documents and copying them with BeanUtils (old path) versus decoding documents
+ * projected to the UserDTO fields (new path). Wire savings of the projection are
+ * not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDirectoryBenchmark {
+
+    @Param({"10000", "100000"})
+    private int users;
+
+    private MappingMongoConverter converter;
+    private List<Document> fullDocuments;
+    private List<Document> projectedDocuments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        fullDocuments = new ArrayList<>(users);
+        projectedDocuments = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            Document full = new Document("_id", new ObjectId())
+                    .append("name", "user " + i)
+                    .append("email", "user" + i + "@example.com")
+                    .append("profileImage", "https://cdn.example.com/profiles/" + i + ".png")
+                    .append("mobileNumber", "07" + (10000000 + i))
+                    .append("password", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5ZpQnZpLz3jH6N0jRwcWm1K")
+                    .append("source", RegistrationSource.CREDENTIAL.name())
+                    .append("followersCount", i % 500)
+                    .append("followingCount", i % 300)
+                    .append("active", i % 2 == 0)
+                    .append("_class", User.class.getName());
+            fullDocuments.add(full);
+
+            Document projected = new Document(full);
+            projected.remove("password");
+            projected.remove("active");
+            projected.remove("_class");
+            projectedDocuments.add(projected);
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> entityWithBeanUtils() {
+        List<UserDTO> result = new ArrayList<>(users);
+        for (Document document : fullDocuments) {
+            User user = converter.read(User.class, document);
+            UserDTO userDTO = new UserDTO();
+            BeanUtils.copyProperties(user, userDTO);
+            result.add(userDTO);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserDTO> entityWithMapper() {
+        List<UserDTO> result = new ArrayList<>(users);
+        for (Document document : fullDocuments) {
+            result.add(UserMapper.toUserDTO(converter.read(User.class, document)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserDTO> projection() {
+        List<UserDTO> result = new ArrayList<>(users);
+        for (Document document : projectedDocuments) {
+            result.add(converter.read(UserDTO.class, document));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserDirectoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
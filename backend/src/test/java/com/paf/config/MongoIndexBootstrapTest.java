@@ -0,0 +1,184 @@
+package com.paf.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the index bootstrap against an in-memory MongoDB and checks that the filter
+ * of every query method declared in {@code com.paf.repo} matches the leading keys
+ * of at least one index on its collection.
+ */
+class MongoIndexBootstrapTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private MongoMappingContext mappingContext;
+    private MongoIndexBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(scan("com.paf.model",
+                new AnnotationTypeFilter(org.springframework.data.mongodb.core.mapping.Document.class)));
+        mappingContext.afterPropertiesSet();
+
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "paf-test");
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        mongoTemplate = new MongoTemplate(factory, converter);
+
+        bootstrap = new MongoIndexBootstrap();
+        ReflectionTestUtils.setField(bootstrap, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(bootstrap, "mappingContext", mappingContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void ensuresDeclaredIndexesWithoutErrors() {
+        List<MongoIndexBootstrap.IndexStatus> report = bootstrap.ensureIndexes();
+
+        assertFalse(report.isEmpty());
+        for (MongoIndexBootstrap.IndexStatus status : report) {
+            assertTrue(status.isCreated(), status.getCollection() + " " + status.getKeys() + ": " + status.getError());
+        }
+        assertTrue(mongoTemplate.indexOps("users").getIndexInfo().stream()
+                .anyMatch(index -> index.isUnique() && index.isIndexForFields(List.of("email"))));
+    }
+
+    @Test
+    void everyRepositoryQueryIsIndexCovered() throws Exception {
+        bootstrap.ensureIndexes();
+
+        List<String> uncovered = new ArrayList<>();
+        for (Class<?> repository : scan("com.paf.repo", new AssignableTypeFilter(MongoRepository.class))) {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(domainType);
+            List<List<String>> indexes = mongoTemplate.indexOps(entity.getCollection()).getIndexInfo().stream()
+                    .map(IndexInfo::getIndexFields)
+                    .map(fields -> fields.stream().map(IndexField::getKey).toList())
+                    .toList();
+
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault()) {
+                    continue;
+                }
+                Set<String> fields = filterFields(method, domainType);
+                if (fields.isEmpty() || fields.equals(Set.of("_id"))) {
+                    continue;
+                }
+                boolean covered = indexes.stream().anyMatch(keys -> keys.size() >= fields.size()
+                        && new HashSet<>(keys.subList(0, fields.size())).equals(fields));
+                if (!covered) {
+                    uncovered.add(repository.getSimpleName() + "." + method.getName() + " " + fields);
+                }
+            }
+        }
+        assertTrue(uncovered.isEmpty(), "Queries without a matching index: " + uncovered);
+    }
+
+    private Set<String> filterFields(Method method, Class<?> domainType) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null) {
+            // placeholders are not valid JSON values; only the keys matter here
+            return topLevelFields(Document.parse(query.value().replaceAll("\\?\\d+", "null")));
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (Part part : new PartTree(method.getName(), domainType).getParts()) {
+            String field = fieldName(part.getProperty());
+            if (field.equals("_id") && part.getType() == Part.Type.SIMPLE_PROPERTY) {
+                // an _id equality is a point lookup whatever else is filtered
+                return Set.of("_id");
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private Set<String> topLevelFields(Document filter) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            if (entry.getKey().equals("$or") || entry.getKey().equals("$and")) {
+                for (Object branch : (List<?>) entry.getValue()) {
+                    fields.addAll(topLevelFields((Document) branch));
+                }
+            } else if (!entry.getKey().startsWith("$")) {
+                fields.add(entry.getKey());
+            }
+        }
+        return fields;
+    }
+
+    private String fieldName(PropertyPath path) {
+        return mappingContext.getPersistentPropertyPath(path).toDotPath(MongoPersistentProperty::getFieldName);
+    }
+
+    private static Set<Class<?>> scan(String basePackage, TypeFilter filter)
+            throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true;
+            }
+        };
+        scanner.addIncludeFilter(filter);
+        Set<Class<?>> types = new HashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            types.add(ClassUtils.forName(candidate.getBeanClassName(), MongoIndexBootstrapTest.class.getClassLoader()));
+        }
+        return types;
+    }
+}
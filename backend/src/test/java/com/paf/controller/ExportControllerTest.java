@@ -0,0 +1,82 @@
+package com.paf.controller;
+
+import com.paf.service.ExportService;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExportControllerTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExportController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // every export writes the name of the thread it ran on; posts wait to be released
+        ExportService exportService = (ExportService) Proxy.newProxyInstance(ExportService.class.getClassLoader(),
+                new Class<?>[]{ExportService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("exportPosts")) {
+                        started.countDown();
+                        release.await(10, TimeUnit.SECONDS);
+                    }
+                    ((OutputStream) args[0]).write(Thread.currentThread().getName().getBytes(StandardCharsets.UTF_8));
+                    return null;
+                });
+        controller = new ExportController(1, 0);
+        ReflectionTestUtils.setField(controller, "exportService", exportService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        controller.shutdown();
+    }
+
+    @Test
+    void exportsRunOnTheirOwnPoolAndAreRefusedWhenItIsFull() throws Exception {
+        MvcResult posts = mockMvc.perform(get("/export/posts")).andExpect(request().asyncStarted()).andReturn();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // the pool refuses the task before it starts, which MockMvc's asyncDispatch cannot observe
+        MvcResult refused = mockMvc.perform(get("/export/users")).andReturn();
+        mockMvc.perform(redispatch(refused)).andExpect(status().isServiceUnavailable());
+
+        release.countDown();
+        mockMvc.perform(asyncDispatch(posts))
+                .andExpect(status().isOk())
+                .andExpect(content().string("export-1"));
+    }
+
+    // what the container does once the async manager holds a result: dispatch the request again
+    private static RequestBuilder redispatch(MvcResult result) {
+        MockHttpServletRequest original = result.getRequest();
+        return servletContext -> {
+            original.setDispatcherType(DispatcherType.ASYNC);
+            original.setAsyncStarted(false);
+            return original;
+        };
+    }
+}
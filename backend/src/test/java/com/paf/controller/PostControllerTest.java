@@ -0,0 +1,144 @@
+package com.paf.controller;
+
+import com.paf.InMemoryMongo;
+import com.paf.cache.UserCache;
+import com.paf.model.Post;
+import com.paf.model.User;
+import com.paf.repo.PostRepository;
+import com.paf.repo.PostRepositoryCustomImpl;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import com.paf.service.impl.PostServiceImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PostControllerTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private MockMvc mockMvc;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        UserRepository userRepository = mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate));
+
+        PostServiceImpl postService = new PostServiceImpl();
+        ReflectionTestUtils.setField(postService, "postRepository",
+                mongo.repository(PostRepository.class, new PostRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(postService, "userCache", new UserCache(userRepository, 100, Duration.ofMinutes(5)));
+
+        PostController controller = new PostController();
+        ReflectionTestUtils.setField(controller, "postService", postService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304() throws Exception {
+        stored(now.minusSeconds(20));
+        stored(now.minusSeconds(10));
+
+        String all = eTag("/posts");
+        mockMvc.perform(get("/posts").header(HttpHeaders.IF_NONE_MATCH, all))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String feed = eTag("/posts?limit=1");
+        assertNotEquals(all, feed);
+        mockMvc.perform(get("/posts").param("limit", "1").header(HttpHeaders.IF_NONE_MATCH, feed))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/posts").param("limit", "1").header(HttpHeaders.IF_NONE_MATCH, all))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void editAndLikeChangeTheETag() throws Exception {
+        Post post = stored(now.minusSeconds(10));
+        User user = mongoTemplate.insert(new User());
+        String before = eTag("/posts?limit=10");
+
+        mockMvc.perform(put("/posts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + post.getId() + "\",\"title\":\"edited\",\"description\":\"d\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("edited"))
+                .andExpect(jsonPath("$.version").value(1));
+        String edited = eTag("/posts?limit=10");
+        assertNotEquals(before, edited);
+        mockMvc.perform(get("/posts").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/posts/like").param("postId", post.getId()).param("userId", user.getId()))
+                .andExpect(status().isOk());
+        assertNotEquals(edited, eTag("/posts?limit=10"));
+    }
+
+    @Test
+    void editOnlyTouchesTheEditedFields() throws Exception {
+        Post post = stored(now.minusSeconds(10));
+        post.setLikeCount(3);
+        mongoTemplate.save(post);
+        // a post written before the version field existed
+        mongoTemplate.getCollection("posts").insertOne(new Document("title", "old").append("createdAt", now));
+        String legacyId = mongoTemplate.getCollection("posts").find(new Document("title", "old")).first()
+                .getObjectId("_id").toHexString();
+
+        mockMvc.perform(put("/posts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + post.getId() + "\",\"title\":\"edited\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/posts").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + legacyId + "\",\"title\":\"edited\"}"))
+                .andExpect(status().isOk());
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals("edited", stored.getTitle());
+        assertEquals(3, stored.getLikeCount());
+        assertEquals(now.minusSeconds(10), stored.getCreatedAt());
+        assertNotNull(stored.getDate());
+        assertEquals(2L, stored.getVersion());
+        assertEquals("edited", mongoTemplate.findById(legacyId, Post.class).getTitle());
+    }
+
+    private String eTag(String uri) throws Exception {
+        String eTag = mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private Post stored(Instant createdAt) {
+        Post post = new Post();
+        post.setCreatedAt(createdAt);
+        post.setTitle("title");
+        return mongoTemplate.insert(post);
+    }
+}
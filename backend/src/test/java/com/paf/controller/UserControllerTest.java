@@ -0,0 +1,123 @@
+package com.paf.controller;
+
+import com.paf.InMemoryMongo;
+import com.paf.cache.UserCache;
+import com.paf.model.User;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import com.paf.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTest {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        UserRepository userRepository = mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate));
+
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "userCache", new UserCache(userRepository, 100, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(userService, "passwordEncoder", new BCryptPasswordEncoder());
+
+        UserController controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void profileUpdateChangesTheETag() throws Exception {
+        User user = user("Ada", "ada@example.com");
+        String before = eTag(user);
+        mockMvc.perform(get("/users/{userId}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/users/{userId}", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Grace\",\"email\":\"\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Grace"));
+
+        String after = eTag(user);
+        assertNotEquals(before, after);
+        mockMvc.perform(get("/users/{userId}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Grace"));
+
+        User stored = mongoTemplate.findById(user.getId(), User.class);
+        assertEquals("grace", stored.getNameLower());
+        assertEquals("ada@example.com", stored.getEmail());
+        assertEquals("secret", stored.getPassword());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void profileUpdateOnlyTouchesTheGivenFields() throws Exception {
+        User user = user("Ada", "ada@example.com");
+        User other = user("Grace", "grace@example.com");
+        mockMvc.perform(post("/users/{userId}/activate", user.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(put("/users/{userId}", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"profileImage\":\"ada.png\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/users/{userId}", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"grace@example.com\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/users/{userId}", "missing").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nobody\"}"))
+                .andExpect(status().isNotFound());
+
+        User stored = mongoTemplate.findById(user.getId(), User.class);
+        assertEquals("ada.png", stored.getProfileImage());
+        assertTrue(stored.isActive());
+        assertEquals(2L, stored.getVersion());
+        assertEquals("Grace", mongoTemplate.findById(other.getId(), User.class).getName());
+    }
+
+    private String eTag(User user) throws Exception {
+        String eTag = mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return mongoTemplate.insert(user);
+    }
+}
@@ -0,0 +1,266 @@
+package com.paf.loadtest;
+
+import com.paf.model.Comment;
+import com.paf.model.CommentPreview;
+import com.paf.model.Follow;
+import com.paf.model.MealPlan;
+import com.paf.model.Post;
+import com.paf.model.RegistrationSource;
+import com.paf.model.SharePostModel;
+import com.paf.model.Timeline;
+import com.paf.model.TimelineEntry;
+import com.paf.model.User;
+import com.paf.model.UserSummary;
+import com.paf.model.WorkoutStatus;
+import com.paf.service.NutritionService;
+import com.paf.service.WorkoutProgressService;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a social graph shaped like production: follows, post authorship, likes
+ * and comments are skewed towards a few popular users and posts. Documents are
+ * written directly with their final ids and timestamps, and the denormalized
+ * state the write paths would maintain (counters, comment previews, timelines,
+ * rollups) is filled in to match. Sizes come from {@code paf.load.*}
+ * properties; {@code paf.load.seed} makes the data repeatable.
+ */
+final class LoadDataSeeder {
+
+    static final String PASSWORD = "load-password";
+
+    static final int USERS = Integer.getInteger("paf.load.users", 1000);
+    static final int POSTS = Integer.getInteger("paf.load.posts", 5000);
+    static final int FOLLOWS_PER_USER = Integer.getInteger("paf.load.follows-per-user", 20);
+    static final int MAX_LIKES = Integer.getInteger("paf.load.max-likes", 200);
+    static final int MAX_COMMENTS = Integer.getInteger("paf.load.max-comments", 30);
+    static final int SHARES = Integer.getInteger("paf.load.shares", POSTS / 10);
+    static final int MEALS_PER_USER = Integer.getInteger("paf.load.meals-per-user", 10);
+    static final int WORKOUTS_PER_USER = Integer.getInteger("paf.load.workouts-per-user", 10);
+    private static final long SEED = Long.getLong("paf.load.seed", 42);
+    private static final int TIMELINE_MAX_ENTRIES = 800;
+    private static final Duration HISTORY = Duration.ofDays(30);
+
+    record Dataset(List<User> users, List<String> postIds) {
+    }
+
+    private final LoadTestApplication app;
+    private final MongoTemplate mongoTemplate;
+    private final Random random = new Random(SEED);
+
+    LoadDataSeeder(LoadTestApplication app) {
+        this.app = app;
+        this.mongoTemplate = app.mongoTemplate();
+    }
+
+    Dataset seed() {
+        List<User> users = users();
+        Map<Integer, List<Integer>> followers = follows(users);
+        mongoTemplate.insertAll(users);
+
+        List<Post> posts = posts(users);
+        comments(users, posts);
+        mongoTemplate.insertAll(posts);
+        timelines(posts, users, followers);
+        shares(users, posts);
+        mealsAndWorkouts(users);
+        return new Dataset(users, posts.stream().map(Post::getId).toList());
+    }
+
+    private List<User> users() {
+        // every user gets the same hash; encoding one per user would take minutes
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setId(new ObjectId().toHexString());
+            user.setName("Load User " + i);
+            user.setNameLower("load user " + i);
+            user.setEmail("load" + i + "@example.com");
+            user.setPassword(hash);
+            user.setProfileImage("https://cdn.example.com/profiles/" + i + ".png");
+            user.setSource(RegistrationSource.CREDENTIAL);
+            user.setActive(random.nextInt(4) > 0);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private Map<Integer, List<Integer>> follows(List<User> users) {
+        Map<Integer, List<Integer>> followers = new HashMap<>();
+        List<Follow> edges = new ArrayList<>();
+        Instant start = Instant.now().minus(HISTORY);
+        for (int follower = 0; follower < users.size(); follower++) {
+            Set<Integer> followees = new LinkedHashSet<>();
+            int want = Math.min(FOLLOWS_PER_USER, users.size() - 1);
+            while (followees.size() < want) {
+                int followee = skewed(users.size());
+                if (followee != follower) {
+                    followees.add(followee);
+                }
+            }
+            for (int followee : followees) {
+                Instant createdAt = between(start, Instant.now());
+                edges.add(new Follow(new ObjectId(Date.from(createdAt)).toHexString(),
+                        users.get(follower).getId(), users.get(followee).getId(), createdAt));
+                followers.computeIfAbsent(followee, k -> new ArrayList<>()).add(follower);
+            }
+            users.get(follower).setFollowingCount(followees.size());
+        }
+        followers.forEach((followee, list) -> users.get(followee).setFollowersCount(list.size()));
+        mongoTemplate.insertAll(edges);
+        return followers;
+    }
+
+    private List<Post> posts(List<User> users) {
+        List<Post> posts = new ArrayList<>(POSTS);
+        Instant start = Instant.now().minus(HISTORY);
+        long step = Math.max(1, HISTORY.getSeconds() / Math.max(1, POSTS));
+        for (int i = 0; i < POSTS; i++) {
+            User author = users.get(skewed(users.size()));
+            Instant createdAt = start.plusSeconds(i * step);
+            Post post = new Post();
+            // an id set up front keeps auditing from replacing the back-dated createdAt
+            post.setId(new ObjectId(Date.from(createdAt)).toHexString());
+            post.setUserId(author.getId());
+            post.setUsername(author.getName());
+            post.setUserProfile(author.getProfileImage());
+            post.setTitle("Load post " + i);
+            post.setDescription("Seeded post " + i + " with a description long enough to look like a real one.");
+            post.setImages(random.nextInt(3) == 0 ? List.of("https://cdn.example.com/posts/" + i + ".jpg") : List.of());
+            post.setCreatedAt(createdAt);
+            post.setDate(createdAt);
+            List<String> likedBy = sample(users, (int) (Math.min(MAX_LIKES, users.size()) * Math.pow(random.nextDouble(), 4)));
+            post.setLikedBy(likedBy);
+            post.setLikeCount(likedBy.size());
+            post.setSharedBy(new ArrayList<>());
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private void comments(List<User> users, List<Post> posts) {
+        List<Comment> batch = new ArrayList<>();
+        for (Post post : posts) {
+            int count = (int) (MAX_COMMENTS * Math.pow(random.nextDouble(), 3));
+            List<Comment> comments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                User author = users.get(random.nextInt(users.size()));
+                Instant createdAt = between(post.getCreatedAt(), Instant.now());
+                Comment comment = new Comment();
+                comment.setId(new ObjectId(Date.from(createdAt)).toHexString());
+                comment.setPostId(post.getId());
+                comment.setContent("Seeded comment " + i);
+                comment.setCommentBy(author.getName());
+                comment.setCommentById(author.getId());
+                comment.setCommentByProfile(author.getProfileImage());
+                comment.setCreatedAt(createdAt);
+                comments.add(comment);
+            }
+            comments.sort(Comparator.comparing(Comment::getCreatedAt).reversed());
+            post.setCommentCount(count);
+            post.setLatestComments(comments.stream().limit(3).map(CommentPreview::of).toList());
+            batch.addAll(comments);
+        }
+        mongoTemplate.insertAll(batch);
+    }
+
+    private void timelines(List<Post> posts, List<User> users, Map<Integer, List<Integer>> followers) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            index.put(users.get(i).getId(), i);
+        }
+        Map<String, List<TimelineEntry>> entries = new HashMap<>();
+        for (Post post : posts) {
+            TimelineEntry entry = new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+            entries.computeIfAbsent(post.getUserId(), k -> new ArrayList<>()).add(entry);
+            for (int follower : followers.getOrDefault(index.get(post.getUserId()), List.of())) {
+                entries.computeIfAbsent(users.get(follower).getId(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        List<Timeline> timelines = new ArrayList<>(entries.size());
+        entries.forEach((userId, list) -> {
+            list.sort(Comparator.comparing(TimelineEntry::getCreatedAt).reversed());
+            timelines.add(new Timeline(userId, new ArrayList<>(list.subList(0, Math.min(TIMELINE_MAX_ENTRIES, list.size())))));
+        });
+        mongoTemplate.insertAll(timelines);
+    }
+
+    private void shares(List<User> users, List<Post> posts) {
+        List<SharePostModel> shares = new ArrayList<>(SHARES);
+        for (int i = 0; i < SHARES; i++) {
+            User user = users.get(random.nextInt(users.size()));
+            Post post = posts.get(skewed(posts.size()));
+            Instant createdAt = between(post.getCreatedAt(), Instant.now());
+            SharePostModel share = new SharePostModel();
+            share.setId(new ObjectId(Date.from(createdAt)).toHexString());
+            share.setSharedBy(UserSummary.of(user));
+            share.setUserId(user.getId());
+            share.setPostId(post.getId());
+            share.setDescription("Seeded share " + i);
+            share.setShared("shared");
+            share.setCreatedAt(createdAt);
+            shares.add(share);
+        }
+        mongoTemplate.insertAll(shares);
+    }
+
+    private void mealsAndWorkouts(List<User> users) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<MealPlan> meals = new ArrayList<>();
+        List<WorkoutStatus> workouts = new ArrayList<>();
+        for (User user : users) {
+            for (int i = 0; i < MEALS_PER_USER; i++) {
+                meals.add(new MealPlan(null, user.getId(), "lunch", "Seeded meal " + i,
+                        10 + random.nextInt(40), 5 + random.nextInt(30), "", 300 + random.nextInt(700),
+                        20 + random.nextInt(80), today.minusDays(random.nextInt(28)), user.getName(), user.getProfileImage()));
+            }
+            for (int i = 0; i < WORKOUTS_PER_USER; i++) {
+                workouts.add(new WorkoutStatus(null, user.getId(), random.nextInt(15), random.nextInt(100),
+                        55 + random.nextInt(50), "", today.minusDays(random.nextInt(28)), user.getName(), user.getProfileImage()));
+            }
+        }
+        mongoTemplate.insertAll(meals);
+        mongoTemplate.insertAll(workouts);
+
+        NutritionService nutritionService = app.bean(NutritionService.class);
+        WorkoutProgressService workoutProgressService = app.bean(WorkoutProgressService.class);
+        for (User user : users) {
+            nutritionService.rebuild(user.getId());
+            workoutProgressService.rebuild(user.getId());
+        }
+    }
+
+    // index in [0, bound), biased towards 0 so a few users and posts get most of the attention
+    private int skewed(int bound) {
+        return (int) (bound * Math.pow(random.nextDouble(), 2.5));
+    }
+
+    private List<String> sample(List<User> users, int count) {
+        Set<String> ids = new LinkedHashSet<>();
+        while (ids.size() < count) {
+            ids.add(users.get(random.nextInt(users.size())).getId());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private Instant between(Instant from, Instant to) {
+        long span = Math.max(1, Duration.between(from, to).getSeconds());
+        return from.plusSeconds((long) (random.nextDouble() * span));
+    }
+}
@@ -0,0 +1,173 @@
+package com.paf.loadtest;
+
+import com.paf.model.User;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load test for the feed, like and follow endpoints. It boots the
+ * application through {@link LoadTestApplication}, seeds it with {@link LoadDataSeeder},
+ * and ramps the number of concurrent clients per endpoint, printing p50/p99 latency
+ * and throughput at each step. {@code paf.load.mongo-latency-ms} adds a round-trip
+ * delay to every command to make the request threads block as they would on a
+ * network. {@link MixedWorkloadHarness} drives all endpoints at once instead.
+ * <p>
+ * Run it once with {@code -Dpaf.load.virtual=false} and once with {@code true}
+ * (on Java 21+) and compare the highest concurrency that stays within
+ * {@code paf.load.p99-budget-ms}:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -Dpaf.load.virtual=true -cp target/test-classes:target/classes:$(cat cp.txt) com.paf.loadtest.LoadHarness
+ * </pre>
+ */
+public class LoadHarness {
+
+    private static final long MONGO_LATENCY_MS = Long.getLong("paf.load.mongo-latency-ms", 2);
+    private static final Duration STEP = Duration.ofSeconds(Long.getLong("paf.load.step-seconds", 15));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("paf.load.warmup-seconds", 5));
+    private static final long P99_BUDGET_MS = Long.getLong("paf.load.p99-budget-ms", 250);
+    private static final int[] CONCURRENCY = Arrays.stream(
+            System.getProperty("paf.load.concurrency", "16,64,256,512,1024").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    private record Endpoint(String name, Function<LoadHarness, HttpRequest> request) {
+    }
+
+    private record StepResult(int concurrency, long requests, long errors, double throughput, double p50, double p99) {
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+    private final List<String> userIds;
+    private final List<String> postIds;
+
+    private LoadHarness(String baseUrl, List<String> userIds, List<String> postIds) {
+        this.baseUrl = baseUrl;
+        this.userIds = userIds;
+        this.postIds = postIds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = Boolean.getBoolean("paf.load.virtual");
+        LoadTestApplication app = LoadTestApplication.start(System.getProperty("paf.load.mongo-uri"), virtual, MONGO_LATENCY_MS);
+        try {
+            LoadDataSeeder.Dataset dataset = new LoadDataSeeder(app).seed();
+            app.enableLatency();
+            LoadHarness harness = new LoadHarness(app.baseUrl(), dataset.users().stream().map(User::getId).toList(),
+                    dataset.postIds());
+
+            System.out.printf("mode=%s java=%s mongoLatency=%dms users=%d posts=%d%n",
+                    virtual ? "virtual" : "platform", Runtime.version(), MONGO_LATENCY_MS,
+                    LoadDataSeeder.USERS, LoadDataSeeder.POSTS);
+            List<Endpoint> endpoints = List.of(
+                    new Endpoint("feed", LoadHarness::feedRequest),
+                    new Endpoint("like", LoadHarness::likeRequest),
+                    new Endpoint("follow", LoadHarness::followRequest));
+            for (Endpoint endpoint : endpoints) {
+                harness.run(endpoint);
+            }
+        } finally {
+            app.close();
+        }
+        // the stand-in's netty event loop is non-daemon and outlives shutdown()
+        System.exit(0);
+    }
+
+    private HttpRequest feedRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/posts?limit=20")).GET().build();
+    }
+
+    private HttpRequest likeRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/posts/like?postId=" + random(postIds) + "&userId=" + random(userIds)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private HttpRequest followRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/users/follow?userId=" + random(userIds) + "&FollowedUserId=" + random(userIds)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static String random(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private void run(Endpoint endpoint) throws Exception {
+        System.out.printf("%n%-8s %11s %10s %8s %12s %10s %10s%n",
+                endpoint.name(), "concurrency", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        StepResult best = null;
+        for (int concurrency : CONCURRENCY) {
+            step(endpoint, concurrency, WARMUP);
+            StepResult result = step(endpoint, concurrency, STEP);
+            System.out.printf("%-8s %11d %10d %8d %12.1f %10.2f %10.2f%n", endpoint.name(), result.concurrency(),
+                    result.requests(), result.errors(), result.throughput(), result.p50(), result.p99());
+            if (result.p99() <= P99_BUDGET_MS && result.errors() == 0) {
+                best = result;
+            }
+        }
+        if (best == null) {
+            System.out.printf("%-8s no step stayed within p99 <= %d ms%n", endpoint.name(), P99_BUDGET_MS);
+        } else {
+            System.out.printf("%-8s capacity at p99 <= %d ms: %d concurrent clients, %.1f req/s%n",
+                    endpoint.name(), P99_BUDGET_MS, best.concurrency(), best.throughput());
+        }
+    }
+
+    private StepResult step(Endpoint endpoint, int concurrency, Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Histogram>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                Histogram latencies = newHistogram();
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(endpoint.request().apply(this),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.recordValue(Math.min(System.nanoTime() - started, latencies.getHighestTrackableValue()));
+                }
+                return latencies;
+            }));
+        }
+
+        Histogram all = newHistogram();
+        for (Future<Histogram> future : futures) {
+            all.add(future.get());
+        }
+        clients.shutdown();
+
+        double seconds = duration.toNanos() / 1e9;
+        return new StepResult(concurrency, all.getTotalCount(), errors.get(), all.getTotalCount() / seconds,
+                all.getValueAtPercentile(50) / 1e6, all.getValueAtPercentile(99) / 1e6);
+    }
+
+    // nanosecond values up to a minute, to three significant digits
+    static Histogram newHistogram() {
+        return new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+    }
+}
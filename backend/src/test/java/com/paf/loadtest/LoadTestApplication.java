@@ -0,0 +1,104 @@
+package com.paf.loadtest;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.paf.PafApplication;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The application on a random port, backed by an in-process MongoDB stand-in
+ * unless a {@code mongoUri} is given. The stand-in answers in microseconds, so
+ * once {@link #enableLatency()} is called every command is delayed by
+ * {@code mongoLatencyMs} to make request threads block as they would on a
+ * network. Seeding runs before that, at full speed.
+ */
+final class LoadTestApplication implements AutoCloseable {
+
+    private final MongoServer server;
+    private final ConfigurableApplicationContext context;
+    private final AtomicBoolean latencyEnabled;
+
+    private LoadTestApplication(MongoServer server, ConfigurableApplicationContext context, AtomicBoolean latencyEnabled) {
+        this.server = server;
+        this.context = context;
+        this.latencyEnabled = latencyEnabled;
+    }
+
+    static LoadTestApplication start(String mongoUri, boolean virtual, long mongoLatencyMs) {
+        if (virtual && Runtime.version().feature() < 21) {
+            System.out.println("WARNING: virtual threads need Java 21+, running on " + Runtime.version()
+                    + "; spring.threads.virtual.enabled will have no effect");
+        }
+
+        MongoServer server = null;
+        if (mongoUri == null) {
+            server = new MongoServer(new MemoryBackend());
+            mongoUri = server.bindAndGetConnectionString() + "/paf-load";
+        }
+
+        AtomicBoolean latencyEnabled = new AtomicBoolean();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PafApplication.class)
+                .profiles(virtual ? new String[]{"virtual"} : new String[0])
+                .properties(
+                        "server.port=0",
+                        "spring.data.mongodb.uri=" + mongoUri,
+                        "spring.security.oauth2.client.registration.google.client-id=load-test",
+                        "spring.security.oauth2.client.registration.google.client-secret=load-test",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("mongoLatency",
+                        latencyInjector(latencyEnabled, mongoLatencyMs)))
+                .run();
+        return new LoadTestApplication(server, context, latencyEnabled);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    MongoTemplate mongoTemplate() {
+        return context.getBean(MongoTemplate.class);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    void enableLatency() {
+        latencyEnabled.set(true);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    private static MongoClientSettingsBuilderCustomizer latencyInjector(AtomicBoolean enabled,
+            long latencyMs) {
+        // the sync driver calls listeners on the thread issuing the command
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (latencyMs > 0 && enabled.get()) {
+                    try {
+                        Thread.sleep(latencyMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        return builder -> builder.addCommandListener(listener);
+    }
+}
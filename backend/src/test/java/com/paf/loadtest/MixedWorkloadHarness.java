@@ -0,0 +1,303 @@
+package com.paf.loadtest;
+
+import com.paf.model.User;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Drives a weighted mix of requests across the post, user, comment and share
+ * endpoints from {@code paf.load.clients} closed-loop clients, then prints
+ * p50/p99/p99.9/max latency and throughput per endpoint from HdrHistograms.
+ * The app runs as in {@link LoadHarness}, on data from {@link LoadDataSeeder}.
+ * <p>
+ * {@code paf.load.mix} picks the weights: {@code read-heavy} (default),
+ * {@code balanced} or {@code write-heavy}. With {@code paf.load.hgrm-dir} set,
+ * each endpoint's full percentile distribution is also written as an
+ * {@code .hgrm} file for plotting. Clients send their next request as soon as
+ * the previous one returns, so under saturation the tail reflects service time
+ * rather than the queueing an open-loop arrival rate would add.
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -Dpaf.load.mix=balanced -cp target/test-classes:target/classes:$(cat cp.txt) com.paf.loadtest.MixedWorkloadHarness
+ * </pre>
+ */
+public class MixedWorkloadHarness {
+
+    private static final long MONGO_LATENCY_MS = Long.getLong("paf.load.mongo-latency-ms", 2);
+    private static final int CLIENTS = Integer.getInteger("paf.load.clients", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("paf.load.duration-seconds", 60));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("paf.load.warmup-seconds", 10));
+    private static final String MIX = System.getProperty("paf.load.mix", "read-heavy");
+    private static final String HGRM_DIR = System.getProperty("paf.load.hgrm-dir");
+
+    private record Operation(String name, int weight, Function<MixedWorkloadHarness, HttpRequest> request) {
+    }
+
+    private static final class Stats {
+        final Histogram latencies = LoadHarness.newHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+    private final List<User> users;
+    private final List<String> postIds;
+
+    private MixedWorkloadHarness(String baseUrl, List<User> users, List<String> postIds) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.postIds = postIds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Operation> operations = operations(MIX);
+        boolean virtual = Boolean.getBoolean("paf.load.virtual");
+        LoadTestApplication app = LoadTestApplication.start(System.getProperty("paf.load.mongo-uri"), virtual, MONGO_LATENCY_MS);
+        try {
+            long seedStarted = System.nanoTime();
+            LoadDataSeeder.Dataset dataset = new LoadDataSeeder(app).seed();
+            System.out.printf("seeded users=%d posts=%d in %.1fs%n", LoadDataSeeder.USERS, LoadDataSeeder.POSTS,
+                    (System.nanoTime() - seedStarted) / 1e9);
+            app.enableLatency();
+
+            MixedWorkloadHarness harness = new MixedWorkloadHarness(app.baseUrl(), dataset.users(), dataset.postIds());
+            System.out.printf("mix=%s clients=%d mode=%s java=%s mongoLatency=%dms%n", MIX, CLIENTS,
+                    virtual ? "virtual" : "platform", Runtime.version(), MONGO_LATENCY_MS);
+            harness.run(operations, WARMUP);
+            harness.report(operations, harness.run(operations, DURATION));
+        } finally {
+            app.close();
+        }
+        // the stand-in's netty event loop is non-daemon and outlives shutdown()
+        System.exit(0);
+    }
+
+    private static List<Operation> operations(String mix) {
+        // weights per mix: read-heavy, balanced, write-heavy
+        int column = switch (mix) {
+            case "read-heavy" -> 0;
+            case "balanced" -> 1;
+            case "write-heavy" -> 2;
+            default -> throw new IllegalArgumentException("Unknown paf.load.mix " + mix);
+        };
+        List<Operation> operations = new ArrayList<>();
+        add(operations, column, "GET /posts?limit", new int[]{20, 12, 6}, MixedWorkloadHarness::feed);
+        add(operations, column, "GET /posts/timeline", new int[]{15, 10, 6}, MixedWorkloadHarness::timeline);
+        add(operations, column, "GET /posts/{id}", new int[]{10, 8, 5}, MixedWorkloadHarness::post);
+        add(operations, column, "POST /posts", new int[]{2, 6, 12}, MixedWorkloadHarness::createPost);
+        add(operations, column, "POST /posts/like", new int[]{8, 12, 18}, MixedWorkloadHarness::like);
+        add(operations, column, "GET /users/{id}", new int[]{10, 8, 5}, MixedWorkloadHarness::user);
+        add(operations, column, "GET /users?limit", new int[]{4, 3, 2}, MixedWorkloadHarness::directory);
+        add(operations, column, "GET /users/{id}/followers", new int[]{4, 3, 2}, MixedWorkloadHarness::followers);
+        add(operations, column, "POST /users/follow", new int[]{3, 6, 10}, MixedWorkloadHarness::follow);
+        add(operations, column, "POST /users/login", new int[]{1, 2, 2}, MixedWorkloadHarness::login);
+        add(operations, column, "GET /api/comments/post", new int[]{12, 10, 6}, MixedWorkloadHarness::comments);
+        add(operations, column, "POST /api/comments/post", new int[]{3, 8, 14}, MixedWorkloadHarness::comment);
+        add(operations, column, "GET /share?limit", new int[]{6, 5, 4}, MixedWorkloadHarness::shares);
+        add(operations, column, "POST /share", new int[]{2, 7, 8}, MixedWorkloadHarness::share);
+        return operations;
+    }
+
+    private static void add(List<Operation> operations, int column, String name, int[] weights,
+            Function<MixedWorkloadHarness, HttpRequest> request) {
+        operations.add(new Operation(name, weights[column], request));
+    }
+
+    private Map<String, Stats> run(List<Operation> operations, Duration duration) throws Exception {
+        int[] cumulative = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).weight();
+            cumulative[i] = total;
+        }
+        int totalWeight = total;
+
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        operations.forEach(operation -> stats.put(operation.name(), new Stats()));
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+                    int index = 0;
+                    while (cumulative[index] <= pick) {
+                        index++;
+                    }
+                    Operation operation = operations.get(index);
+                    Stats operationStats = stats.get(operation.name());
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(operation.request().apply(this),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            operationStats.errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        operationStats.errors.incrementAndGet();
+                    }
+                    long elapsed = System.nanoTime() - started;
+                    synchronized (operationStats.latencies) {
+                        operationStats.latencies.recordValue(Math.min(elapsed, operationStats.latencies.getHighestTrackableValue()));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+        return stats;
+    }
+
+    private void report(List<Operation> operations, Map<String, Stats> stats) throws IOException {
+        double seconds = DURATION.toNanos() / 1e9;
+        System.out.printf("%n%-28s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram overall = LoadHarness.newHistogram();
+        long errors = 0;
+        Map<String, Histogram> byEndpoint = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            Stats operationStats = stats.get(operation.name());
+            Histogram histogram = operationStats.latencies;
+            byEndpoint.put(operation.name(), histogram);
+            overall.add(histogram);
+            errors += operationStats.errors.get();
+            print(operation.name(), histogram, operationStats.errors.get(), seconds);
+        }
+        print("all", overall, errors, seconds);
+
+        if (HGRM_DIR != null) {
+            Path dir = Files.createDirectories(Path.of(HGRM_DIR));
+            for (Map.Entry<String, Histogram> entry : byEndpoint.entrySet()) {
+                String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+                try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve(file).toFile()))) {
+                    entry.getValue().outputPercentileDistribution(out, 1e6);
+                }
+            }
+            System.out.println("percentile distributions (ms) written to " + dir.toAbsolutePath());
+        }
+    }
+
+    private static void print(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxValue() / 1e6);
+    }
+
+    private HttpRequest feed() {
+        return get("/posts?limit=20");
+    }
+
+    private HttpRequest timeline() {
+        return get("/posts/timeline/" + randomUser().getId() + "?limit=20");
+    }
+
+    private HttpRequest post() {
+        return get("/posts/" + randomPost());
+    }
+
+    private HttpRequest createPost() {
+        User author = randomUser();
+        return json("/posts", "{\"userId\":\"" + author.getId() + "\",\"username\":\"" + author.getName()
+                + "\",\"title\":\"Load post\",\"description\":\"Posted by MixedWorkloadHarness\",\"likedBy\":[]}");
+    }
+
+    private HttpRequest like() {
+        return post("/posts/like?postId=" + randomPost() + "&userId=" + randomUser().getId());
+    }
+
+    private HttpRequest user() {
+        return get("/users/" + randomUser().getId());
+    }
+
+    private HttpRequest directory() {
+        return get("/users?limit=20&q=" + encode("load user " + ThreadLocalRandom.current().nextInt(10)));
+    }
+
+    private HttpRequest followers() {
+        return get("/users/" + randomUser().getId() + "/followers?limit=20");
+    }
+
+    private HttpRequest follow() {
+        return post("/users/follow?userId=" + randomUser().getId() + "&FollowedUserId=" + randomUser().getId());
+    }
+
+    private HttpRequest login() {
+        return json("/users/login", "{\"email\":\"" + randomUser().getEmail() + "\",\"password\":\""
+                + LoadDataSeeder.PASSWORD + "\"}");
+    }
+
+    private HttpRequest comments() {
+        return get("/api/comments/post/" + randomPost() + "?limit=20");
+    }
+
+    private HttpRequest comment() {
+        User author = randomUser();
+        return post("/api/comments/post/" + randomPost() + "?content=" + encode("Load comment")
+                + "&commentBy=" + encode(author.getName()) + "&commentById=" + author.getId()
+                + "&commentByProfile=" + encode(author.getProfileImage()));
+    }
+
+    private HttpRequest shares() {
+        return get("/share?limit=20");
+    }
+
+    private HttpRequest share() {
+        return json("/share", "{\"userid\":\"" + randomUser().getId() + "\",\"postId\":\"" + randomPost()
+                + "\",\"description\":\"Shared by MixedWorkloadHarness\"}");
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private User randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    private String randomPost() {
+        return postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package com.paf.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.paf.InMemoryMongo;
+import com.paf.model.Follow;
+import com.paf.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FollowEdgeMigrationTest {
+
+    private static final int USERS = 250;
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void runInterruptedAfterTheFirstBatchStillRecountsItsUsers() {
+        ObjectId hub = new ObjectId();
+        mongoTemplate.getCollection("users").insertOne(new Document("_id", hub).append("followersCount", 0));
+        List<ObjectId> followers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            ObjectId follower = new ObjectId();
+            followers.add(follower);
+            mongoTemplate.getCollection("users").insertOne(new Document("_id", follower)
+                    .append("followingCount", 0)
+                    .append("followedUsers", List.of(hub.toHexString())));
+        }
+
+        // the second batch dies before its lists are unset
+        AtomicInteger unsets = new AtomicInteger();
+        MongoTemplate crashing = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter()) {
+            @Override
+            public UpdateResult updateMulti(Query query, UpdateDefinition update, String collectionName) {
+                if (unsets.incrementAndGet() == 2) {
+                    throw new IllegalStateException("runner died");
+                }
+                return super.updateMulti(query, update, collectionName);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> migration(crashing).run(null));
+        migration(mongoTemplate).run(null);
+
+        assertEquals(USERS, mongoTemplate.count(new Query(), Follow.class));
+        assertEquals(USERS, mongoTemplate.findById(hub, User.class).getFollowersCount());
+        for (ObjectId follower : followers) {
+            assertEquals(1, mongoTemplate.findById(follower, User.class).getFollowingCount());
+        }
+    }
+
+    private static FollowEdgeMigration migration(MongoTemplate mongoTemplate) {
+        FollowEdgeMigration migration = new FollowEdgeMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        return migration;
+    }
+}
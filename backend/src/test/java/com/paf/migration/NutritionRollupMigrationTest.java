@@ -0,0 +1,112 @@
+package com.paf.migration;
+
+import com.paf.DTO.NutritionTotalsDTO;
+import com.paf.InMemoryMongo;
+import com.paf.model.MealPlan;
+import com.paf.model.RollupGranularity;
+import com.paf.repo.MealPlanRepository;
+import com.paf.repo.MealPlanRepositoryCustomImpl;
+import com.paf.repo.NutritionRollupRepository;
+import com.paf.repo.NutritionRollupRepositoryCustomImpl;
+import com.paf.service.impl.NutritionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NutritionRollupMigrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 29);
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private NutritionServiceImpl nutritionService;
+    private final List<String> rebuilt = new ArrayList<>();
+    // number of upcoming rebuilds of u2 that fail, standing in for a crash mid-run
+    private final AtomicInteger failures = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        nutritionService = new NutritionServiceImpl();
+        ReflectionTestUtils.setField(nutritionService, "nutritionRollupRepository",
+                mongo.repository(NutritionRollupRepository.class, new NutritionRollupRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(nutritionService, "mealPlanRepository",
+                mongo.repository(MealPlanRepository.class, new MealPlanRepositoryCustomImpl(mongoTemplate)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void usersWithAnEntryWrittenBeforeTheBackfillAreStillRebuilt() {
+        mealPlan("u1", 30);
+        mealPlan("u2", 10);
+        // served while the runner had not reached u1 yet
+        nutritionService.recordCreated(mealPlan("u1", 5));
+
+        migration().run(null);
+
+        assertEquals(35, protein("u1"));
+        assertEquals(10, protein("u2"));
+        assertEquals(List.of("u1", "u2"), rebuilt);
+    }
+
+    @Test
+    void interruptedRunResumesAfterTheLastRebuiltUser() {
+        mealPlan("u1", 30);
+        mealPlan("u2", 10);
+        mealPlan("u3", 20);
+
+        failures.set(1);
+        assertThrows(IllegalStateException.class, () -> migration().run(null));
+        assertEquals(List.of("u1"), rebuilt);
+
+        migration().run(null);
+        migration().run(null);
+
+        assertEquals(List.of("u1", "u2", "u3"), rebuilt);
+        assertEquals(20, protein("u3"));
+    }
+
+    private NutritionRollupMigration migration() {
+        NutritionRollupMigration migration = new NutritionRollupMigration() {
+            @Override
+            void rebuild(String userId) {
+                if (userId.equals("u2") && failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("runner died");
+                }
+                super.rebuild(userId);
+                rebuilt.add(userId);
+            }
+        };
+        ReflectionTestUtils.setField(migration, "nutritionService", nutritionService);
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        return migration;
+    }
+
+    private long protein(String userId) {
+        List<NutritionTotalsDTO> days = nutritionService.getTotals(userId, RollupGranularity.DAY, DAY, DAY);
+        return days.get(0).getProtein();
+    }
+
+    private MealPlan mealPlan(String userId, int protein) {
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.setUserId(userId);
+        mealPlan.setDate(DAY);
+        mealPlan.setProtein(protein);
+        return mongoTemplate.insert(mealPlan);
+    }
+}
@@ -0,0 +1,96 @@
+package com.paf.repo;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.paf.model.Post;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostRepositoryCustomImplTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private PostRepositoryCustomImpl likes;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "paf-test");
+        likes = new PostRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void toggleLikeAddsThenRemoves() {
+        Post post = mongoTemplate.insert(new Post());
+
+        Post liked = likes.toggleLike(post.getId(), "u1");
+        assertEquals(1, liked.getLikeCount());
+        assertEquals(1, liked.getLikedBy().size());
+
+        Post unliked = likes.toggleLike(post.getId(), "u1");
+        assertEquals(0, unliked.getLikeCount());
+        assertTrue(unliked.getLikedBy().isEmpty());
+    }
+
+    @Test
+    void toggleLikeOnMissingPostReturnsNull() {
+        assertNull(likes.toggleLike("000000000000000000000000", "u1"));
+    }
+
+    @Test
+    void likeCountMatchesLikedByUnderConcurrentToggles() throws Exception {
+        Post post = mongoTemplate.insert(new Post());
+        int threads = 16;
+        int togglesPerThread = 250;
+        int users = 40;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] workers = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < togglesPerThread; i++) {
+                    likes.toggleLike(post.getId(), "user-" + ThreadLocalRandom.current().nextInt(users));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        Post result = mongoTemplate.findById(post.getId(), Post.class);
+        List<String> likedBy = result.getLikedBy() == null ? List.of() : result.getLikedBy();
+        assertEquals(likedBy.size(), result.getLikeCount());
+        assertEquals(likedBy.size(), new HashSet<>(likedBy).size());
+    }
+}
@@ -0,0 +1,265 @@
+package com.paf.service.impl;
+
+import com.paf.InMemoryMongo;
+import com.paf.cache.UserCache;
+import com.paf.model.Comment;
+import com.paf.model.DeletionJob;
+import com.paf.model.Follow;
+import com.paf.model.Post;
+import com.paf.model.User;
+import com.paf.repo.CommentRepository;
+import com.paf.repo.DeletionJobRepository;
+import com.paf.repo.DeletionJobRepositoryCustomImpl;
+import com.paf.repo.PostRepository;
+import com.paf.repo.PostRepositoryCustomImpl;
+import com.paf.repo.TimelineRepository;
+import com.paf.repo.TimelineRepositoryCustomImpl;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CascadeDeleteWorkerTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private DeletionJobRepository deletionJobRepository;
+    private UserRepository userRepository;
+    private CommentRepository commentRepository;
+    private CommentServiceImpl commentService;
+    private CascadeDeleteWorker worker;
+    // number of upcoming cache invalidations that fail, standing in for a crash mid-step
+    private final AtomicInteger invalidationFailures = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        deletionJobRepository = mongo.repository(DeletionJobRepository.class, new DeletionJobRepositoryCustomImpl(mongoTemplate));
+        userRepository = mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate));
+        commentRepository = mongo.repository(CommentRepository.class);
+
+        commentService = new CommentServiceImpl();
+        ReflectionTestUtils.setField(commentService, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(commentService, "postRepository",
+                mongo.repository(PostRepository.class, new PostRepositoryCustomImpl(mongoTemplate)));
+
+        UserCache userCache = new UserCache(userRepository, 100, Duration.ofMinutes(5)) {
+            @Override
+            public void invalidate(String... userIds) {
+                if (invalidationFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    throw new IllegalStateException("worker died");
+                }
+                super.invalidate(userIds);
+            }
+        };
+
+        worker = new CascadeDeleteWorker();
+        ReflectionTestUtils.setField(worker, "deletionJobRepository", deletionJobRepository);
+        ReflectionTestUtils.setField(worker, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(worker, "timelineRepository",
+                mongo.repository(TimelineRepository.class, new TimelineRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(worker, "commentService", commentService);
+        ReflectionTestUtils.setField(worker, "userCache", userCache);
+        ReflectionTestUtils.setField(worker, "batchSize", 1);
+        ReflectionTestUtils.setField(worker, "lease", LEASE);
+        ReflectionTestUtils.setField(worker, "maxAttempts", MAX_ATTEMPTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void userDeleteRunsEveryStepAndCompletes() {
+        User target = user();
+        User follower = user();
+        User followee = user();
+        follow(follower, target);
+        follow(target, followee);
+        follow(followee, follower);
+        Post post = post(target);
+        comment(post, follower);
+
+        DeletionJob job = deletionJobRepository.insert(new DeletionJob(DeletionJob.Target.USER, target.getId()));
+        worker.run(job.getId());
+
+        DeletionJob done = deletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(DeletionJob.Status.DONE, done.getStatus());
+        assertEquals(1, done.getAttempts());
+        assertNotNull(done.getFinishedAt());
+        assertEquals(2L, done.getDeleted().get("follows"));
+        assertEquals(1L, done.getDeleted().get("posts"));
+        assertEquals(1L, done.getDeleted().get("comments"));
+        assertEquals(1, mongoTemplate.count(new Query(), Follow.class));
+        assertCounts(follower, 1, 0);
+        assertCounts(followee, 0, 1);
+    }
+
+    @Test
+    void retryAfterACrashMidStepDoesNotCountEdgesTwice() {
+        User target = user();
+        User follower = user();
+        User followee = user();
+        follow(follower, target);
+        follow(target, followee);
+        follow(followee, follower);
+
+        // the counters are written, then the worker dies before the edge is removed
+        invalidationFailures.set(1);
+        DeletionJob job = deletionJobRepository.insert(new DeletionJob(DeletionJob.Target.USER, target.getId()));
+        worker.run(job.getId());
+
+        DeletionJob failed = deletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(DeletionJob.Status.FAILED, failed.getStatus());
+        assertEquals("worker died", failed.getError());
+        assertEquals(3, mongoTemplate.count(new Query(), Follow.class));
+
+        worker.sweep();
+
+        DeletionJob done = deletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(DeletionJob.Status.DONE, done.getStatus());
+        assertEquals(2, done.getAttempts());
+        assertNull(done.getError());
+        assertCounts(follower, 1, 0);
+        assertCounts(followee, 0, 1);
+    }
+
+    @Test
+    void runningJobIsOnlyReclaimedOnceItsLeaseExpires() {
+        User target = user();
+        DeletionJob job = new DeletionJob(DeletionJob.Target.USER, target.getId());
+        job.setStatus(DeletionJob.Status.RUNNING);
+        job.setAttempts(1);
+        job.setHeartbeatAt(Instant.now());
+        deletionJobRepository.insert(job);
+
+        assertNull(deletionJobRepository.claim(job.getId(), Instant.now().minus(LEASE), MAX_ATTEMPTS));
+        worker.sweep();
+        assertEquals(DeletionJob.Status.RUNNING, deletionJobRepository.findById(job.getId()).orElseThrow().getStatus());
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())),
+                Update.update("heartbeatAt", Instant.now().minus(LEASE).minusSeconds(1)), DeletionJob.class);
+        worker.sweep();
+
+        DeletionJob done = deletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(DeletionJob.Status.DONE, done.getStatus());
+        assertEquals(2, done.getAttempts());
+    }
+
+    @Test
+    void failedJobIsRetriedUntilItRunsOutOfAttempts() {
+        User target = user();
+        follow(target, user());
+        invalidationFailures.set(Integer.MAX_VALUE);
+
+        DeletionJob job = deletionJobRepository.insert(new DeletionJob(DeletionJob.Target.USER, target.getId()));
+        worker.run(job.getId());
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            worker.sweep();
+        }
+
+        DeletionJob failed = deletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(DeletionJob.Status.FAILED, failed.getStatus());
+        assertEquals(MAX_ATTEMPTS, failed.getAttempts());
+        assertEquals(List.of(), deletionJobRepository.findClaimableIds(Instant.now().minus(LEASE), MAX_ATTEMPTS));
+    }
+
+    @Test
+    void commentsByAuthorAreRecountedBeforeTheyAreRemoved() {
+        User author = user();
+        User other = user();
+        Post post = post(other);
+        Comment kept = comment(post, other);
+        comment(post, author);
+        comment(post, author);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(post.getId())),
+                Update.update("commentCount", 3), Post.class);
+
+        ReflectionTestUtils.setField(commentService, "commentRepository", failingOnceOnDeleteAll(commentRepository));
+        assertThrows(IllegalStateException.class, () -> commentService.deleteCommentsByAuthor(author.getId(), 10));
+        assertCommentSummary(post, 1, kept);
+
+        assertEquals(2, commentService.deleteCommentsByAuthor(author.getId(), 10));
+        assertCommentSummary(post, 1, kept);
+        assertEquals(0, commentService.deleteCommentsByAuthor(author.getId(), 10));
+    }
+
+    private void assertCounts(User user, int followersCount, int followingCount) {
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(followersCount, stored.getFollowersCount());
+        assertEquals(followingCount, stored.getFollowingCount());
+    }
+
+    private void assertCommentSummary(Post post, int commentCount, Comment latest) {
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(commentCount, stored.getCommentCount());
+        assertEquals(List.of(latest.getId()),
+                stored.getLatestComments().stream().map(preview -> preview.getCommentId()).toList());
+    }
+
+    private User user() {
+        return mongoTemplate.insert(new User());
+    }
+
+    // counters are kept in step with the edges, as follow/unfollow would
+    private void follow(User follower, User followee) {
+        mongoTemplate.insert(new Follow(null, follower.getId(), followee.getId(), Instant.now()));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(follower.getId())),
+                new Update().inc("followingCount", 1), User.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followee.getId())),
+                new Update().inc("followersCount", 1), User.class);
+    }
+
+    private Post post(User author) {
+        Post post = new Post();
+        post.setUserId(author.getId());
+        post.setCreatedAt(Instant.now());
+        return mongoTemplate.insert(post);
+    }
+
+    private Comment comment(Post post, User author) {
+        Comment comment = new Comment();
+        comment.setPostId(post.getId());
+        comment.setCommentById(author.getId());
+        comment.setCreatedAt(Instant.now());
+        return mongoTemplate.insert(comment);
+    }
+
+    private static CommentRepository failingOnceOnDeleteAll(CommentRepository delegate) {
+        AtomicInteger deletes = new AtomicInteger();
+        return (CommentRepository) Proxy.newProxyInstance(CommentRepository.class.getClassLoader(),
+                new Class<?>[]{CommentRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("deleteAll") && deletes.getAndIncrement() == 0) {
+                        throw new IllegalStateException("worker died");
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
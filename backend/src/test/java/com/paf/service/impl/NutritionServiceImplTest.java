@@ -0,0 +1,220 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.NutritionTotalsDTO;
+import com.paf.InMemoryMongo;
+import com.paf.cache.UserCache;
+import com.paf.model.MealPlan;
+import com.paf.model.NutritionRollup;
+import com.paf.model.RollupGranularity;
+import com.paf.model.User;
+import com.paf.repo.MealPlanRepository;
+import com.paf.repo.MealPlanRepositoryCustomImpl;
+import com.paf.repo.NutritionRollupRepository;
+import com.paf.repo.NutritionRollupRepositoryCustomImpl;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NutritionServiceImplTest {
+
+    private static final String USER = "u1";
+    private static final LocalDate START = LocalDate.of(2024, 1, 29);
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private MealPlanRepository mealPlanRepository;
+    private NutritionServiceImpl nutritionService;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        nutritionService = new NutritionServiceImpl();
+        ReflectionTestUtils.setField(nutritionService, "nutritionRollupRepository",
+                mongo.repository(NutritionRollupRepository.class, new NutritionRollupRepositoryCustomImpl(mongoTemplate)));
+        mealPlanRepository = mongo.repository(MealPlanRepository.class, new MealPlanRepositoryCustomImpl(mongoTemplate));
+        ReflectionTestUtils.setField(nutritionService, "mealPlanRepository", mealPlanRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void randomWritesMatchARebuild() {
+        Random random = new Random(7);
+        List<MealPlan> mealPlans = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int op = random.nextInt(10);
+            if (mealPlans.isEmpty() || op < 5) {
+                mealPlans.add(create(START.plusDays(random.nextInt(40)), random.nextInt(60), random.nextInt(800)));
+            } else if (op < 8) {
+                MealPlan mealPlan = mealPlans.remove(random.nextInt(mealPlans.size()));
+                LocalDate date = START.plusDays(random.nextInt(40));
+                int protein = random.nextInt(60);
+                mealPlans.add(edit(mealPlan, edited -> {
+                    edited.setDate(date);
+                    edited.setProtein(protein);
+                }));
+            } else {
+                delete(mealPlans.remove(random.nextInt(mealPlans.size())));
+            }
+        }
+        assertTrue(rollups().size() > 0);
+        assertRollupsMatchRebuild();
+
+        mealPlans.forEach(this::delete);
+        assertEquals(List.of(), rollups());
+    }
+
+    @Test
+    void rebuildReplacesStoredBucketsAndDropsStaleOnes() {
+        create(START, 30, 500);
+        MealPlan moved = create(START.plusDays(1), 20, 400);
+        // moved without going through the hooks, so the START + 1 bucket is stale
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(moved.getMealPlanId())),
+                Update.update("date", START.plusDays(9)), MealPlan.class);
+
+        nutritionService.rebuild(USER);
+
+        List<NutritionTotalsDTO> days = nutritionService.getTotals(USER, RollupGranularity.DAY, START, START.plusDays(9));
+        assertEquals(10, days.size());
+        assertEquals(1, days.get(0).getMeals());
+        assertEquals(0, days.get(1).getMeals());
+        assertEquals(20, days.get(9).getProtein());
+        assertEquals(List.of(
+                        NutritionRollup.id(USER, RollupGranularity.DAY, START),
+                        NutritionRollup.id(USER, RollupGranularity.DAY, START.plusDays(9)),
+                        NutritionRollup.id(USER, RollupGranularity.WEEK, START),
+                        NutritionRollup.id(USER, RollupGranularity.WEEK, START.plusDays(7))),
+                rollups().stream().map(NutritionRollup::getId).toList());
+    }
+
+    @Test
+    void totalsAreZeroFilledAndBounded() {
+        create(START, 30, 500);
+        create(START.plusDays(2), 10, 200);
+        create(START.plusDays(2), 5, 100);
+
+        List<NutritionTotalsDTO> days = nutritionService.getTotals(USER, RollupGranularity.DAY, START, START.plusDays(3));
+        assertEquals(List.of(START, START.plusDays(1), START.plusDays(2), START.plusDays(3)),
+                days.stream().map(NutritionTotalsDTO::getPeriodStart).toList());
+        assertEquals(List.of(1, 0, 2, 0), days.stream().map(NutritionTotalsDTO::getMeals).toList());
+        assertEquals(15, days.get(2).getProtein());
+
+        List<NutritionTotalsDTO> weeks = nutritionService.getTotals(USER, RollupGranularity.WEEK, null, START.plusDays(6));
+        assertEquals(8, weeks.size());
+        assertEquals(START, weeks.get(7).getPeriodStart());
+        assertEquals(3, weeks.get(7).getMeals());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> nutritionService.getTotals(USER, RollupGranularity.MONTH, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> nutritionService.getTotals(USER, RollupGranularity.DAY, START.plusDays(1), START));
+        assertThrows(IllegalArgumentException.class,
+                () -> nutritionService.getTotals(USER, RollupGranularity.DAY, START, START.plusDays(400)));
+    }
+
+    @Test
+    void concurrentEditsAndDeletesOfOneMealPlanApplyOnce() throws Exception {
+        User user = new User();
+        user.setId(USER);
+        mongoTemplate.insert(user);
+        MealPlanServiceImpl mealPlanService = new MealPlanServiceImpl();
+        ReflectionTestUtils.setField(mealPlanService, "mealPlanRepository", mealPlanRepository);
+        ReflectionTestUtils.setField(mealPlanService, "userCache",
+                new UserCache(mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate)), 10, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(mealPlanService, "nutritionService", nutritionService);
+
+        MealPlan edited = create(START, 30, 500);
+        MealPlan deleted = create(START, 20, 400);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    MealPlan mealPlan = new MealPlan();
+                    mealPlan.setUserId(USER);
+                    mealPlan.setDate(START.plusDays(n % 3));
+                    mealPlan.setProtein(n);
+                    mealPlanService.updatMealPlan(edited.getMealPlanId(), mealPlan);
+                    mealPlanService.deleteMealPlan(deleted.getMealPlanId());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertRollupsMatchRebuild();
+    }
+
+    private void assertRollupsMatchRebuild() {
+        List<NutritionRollup> incremental = rollups();
+        nutritionService.rebuild(USER);
+        assertEquals(rollups(), incremental);
+    }
+
+    private List<NutritionRollup> rollups() {
+        return mongoTemplate.find(Query.query(Criteria.where("userId").is(USER)).with(Sort.by("_id")), NutritionRollup.class);
+    }
+
+    private MealPlan create(LocalDate date, int protein, int calories) {
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.setUserId(USER);
+        mealPlan.setDate(date);
+        mealPlan.setProtein(protein);
+        mealPlan.setFats(protein / 2);
+        mealPlan.setCarbs(protein * 2);
+        mealPlan.setCalories(calories);
+        MealPlan saved = mongoTemplate.insert(mealPlan);
+        nutritionService.recordCreated(saved);
+        return saved;
+    }
+
+    private MealPlan edit(MealPlan mealPlan, Consumer<MealPlan> change) {
+        MealPlan before = mongoTemplate.findById(mealPlan.getMealPlanId(), MealPlan.class);
+        MealPlan after = mongoTemplate.findById(mealPlan.getMealPlanId(), MealPlan.class);
+        change.accept(after);
+        mongoTemplate.save(after);
+        nutritionService.recordUpdated(before, after);
+        return after;
+    }
+
+    private void delete(MealPlan mealPlan) {
+        mongoTemplate.remove(mealPlan);
+        nutritionService.recordDeleted(mealPlan);
+    }
+}
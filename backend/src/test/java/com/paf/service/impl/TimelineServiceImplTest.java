@@ -0,0 +1,123 @@
+package com.paf.service.impl;
+
+import com.paf.DTO.CursorPageDTO;
+import com.paf.InMemoryMongo;
+import com.paf.model.Follow;
+import com.paf.model.Post;
+import com.paf.model.User;
+import com.paf.repo.FollowRepository;
+import com.paf.repo.PostRepository;
+import com.paf.repo.PostRepositoryCustomImpl;
+import com.paf.repo.TimelineRepository;
+import com.paf.repo.TimelineRepositoryCustomImpl;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import com.paf.util.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimelineServiceImplTest {
+
+    private static final int FANOUT_THRESHOLD = 2;
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private TimelineServiceImpl timelineService;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        timelineService = new TimelineServiceImpl();
+        ReflectionTestUtils.setField(timelineService, "timelineRepository",
+                mongo.repository(TimelineRepository.class, new TimelineRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(timelineService, "followRepository", mongo.repository(FollowRepository.class));
+        ReflectionTestUtils.setField(timelineService, "postRepository",
+                mongo.repository(PostRepository.class, new PostRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(timelineService, "userRepository",
+                mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(timelineService, "maxEntries", 800);
+        ReflectionTestUtils.setField(timelineService, "fanoutThreshold", FANOUT_THRESHOLD);
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void authorCrossingTheThresholdIsListedOncePerPost() {
+        User author = user(1);
+        User reader = user(0);
+        follow(reader, author);
+
+        Post beforeCrossing = post(author, now.minusSeconds(30));
+        timelineService.fanOut(beforeCrossing);
+
+        follow(user(0), author);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(author.getId())),
+                Update.update("followersCount", FANOUT_THRESHOLD), User.class);
+        // written before the celebrity set refreshes, so it is still pushed
+        Post beforeRefresh = post(author, now.minusSeconds(20));
+        timelineService.fanOut(beforeRefresh);
+
+        ReflectionTestUtils.setField(timelineService, "celebrityIdsLoadedAt", 0L);
+        Post afterRefresh = post(author, now.minusSeconds(10));
+        timelineService.fanOut(afterRefresh);
+
+        CursorPageDTO<Post> all = timelineService.getTimeline(reader.getId(), null, 10, false);
+        assertEquals(List.of(afterRefresh.getId(), beforeRefresh.getId(), beforeCrossing.getId()), ids(all));
+        assertNull(all.getNextCursor());
+
+        // page boundaries must not count a post twice either
+        CursorPageDTO<Post> first = timelineService.getTimeline(reader.getId(), null, 2, false);
+        assertEquals(List.of(afterRefresh.getId(), beforeRefresh.getId()), ids(first));
+        CursorPageDTO<Post> second = timelineService.getTimeline(reader.getId(), first.getNextCursor(), 2, false);
+        assertEquals(List.of(beforeCrossing.getId()), ids(second));
+    }
+
+    @Test
+    void cursorWithoutAnObjectIdIsRejected() {
+        User reader = user(0);
+        String forged = new Cursor(now, "not-an-id").encode();
+        assertThrows(IllegalArgumentException.class, () -> timelineService.getTimeline(reader.getId(), forged, 10, false));
+        assertThrows(IllegalArgumentException.class, () -> timelineService.getTimeline(reader.getId(), "%%%", 10, false));
+    }
+
+    private User user(int followersCount) {
+        User user = new User();
+        user.setFollowersCount(followersCount);
+        return mongoTemplate.insert(user);
+    }
+
+    private void follow(User follower, User followee) {
+        mongoTemplate.insert(new Follow(null, follower.getId(), followee.getId(), now));
+    }
+
+    private Post post(User author, Instant createdAt) {
+        Post post = new Post();
+        post.setUserId(author.getId());
+        post.setCreatedAt(createdAt);
+        return mongoTemplate.insert(post);
+    }
+
+    private static List<String> ids(CursorPageDTO<Post> page) {
+        return page.getItems().stream().map(Post::getId).toList();
+    }
+}
@@ -0,0 +1,209 @@
+package com.paf.service.impl;
+
+import com.paf.InMemoryMongo;
+import com.paf.cache.UserCache;
+import com.paf.model.User;
+import com.paf.model.RollupGranularity;
+import com.paf.model.WorkoutRollup;
+import com.paf.model.WorkoutStatus;
+import com.paf.repo.WorkoutRollupRepository;
+import com.paf.repo.WorkoutRollupRepositoryCustomImpl;
+import com.paf.repo.UserRepository;
+import com.paf.repo.UserRepositoryCustomImpl;
+import com.paf.repo.WorkoutStatusRepository;
+import com.paf.repo.WorkoutStatusRepositoryCustomImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkoutProgressServiceImplTest {
+
+    private static final String USER = "u1";
+    // a Monday, so one week spans the end of January and the start of February
+    private static final LocalDate START = LocalDate.of(2024, 1, 29);
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private WorkoutStatusRepository workoutStatusRepository;
+    private WorkoutProgressServiceImpl progressService;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.mongoTemplate();
+        workoutStatusRepository = mongo.repository(WorkoutStatusRepository.class, new WorkoutStatusRepositoryCustomImpl(mongoTemplate));
+        progressService = new WorkoutProgressServiceImpl();
+        ReflectionTestUtils.setField(progressService, "workoutRollupRepository",
+                mongo.repository(WorkoutRollupRepository.class, new WorkoutRollupRepositoryCustomImpl(mongoTemplate)));
+        ReflectionTestUtils.setField(progressService, "workoutStatusRepository", workoutStatusRepository);
+        ReflectionTestUtils.setField(progressService, "mongoTemplate", mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void editsAndDeletesOfTheExtremesMatchARebuild() {
+        WorkoutStatus longest = create(START, 10, 20, 80);
+        create(START, 4, 30, 0);
+        WorkoutStatus heaviest = create(START.plusDays(1), 6, 10, 85);
+        WorkoutStatus lightest = create(START.plusDays(3), 3, 5, 75);
+        assertRollupsMatchRebuild();
+
+        // lowering the day's maximum has to fall back to the next best status
+        edit(longest, status -> status.setDistance(2));
+        // moving into the next month leaves January's week and month buckets behind
+        heaviest = edit(heaviest, status -> status.setDate(START.plusDays(5)));
+        // dropping the only weight of a day clears that day's weight range
+        lightest = edit(lightest, status -> status.setWeight(0));
+        assertRollupsMatchRebuild();
+
+        delete(heaviest);
+        delete(lightest);
+        assertRollupsMatchRebuild();
+        assertFalse(mongoTemplate.exists(Query.query(Criteria.where("_id")
+                .is(WorkoutRollup.id(USER, RollupGranularity.MONTH, START.plusDays(5).withDayOfMonth(1)))),
+                WorkoutRollup.class));
+    }
+
+    @Test
+    void randomWritesMatchARebuild() {
+        Random random = new Random(42);
+        List<WorkoutStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int op = random.nextInt(10);
+            if (statuses.isEmpty() || op < 5) {
+                statuses.add(create(START.plusDays(random.nextInt(70)), random.nextInt(20),
+                        random.nextInt(50), random.nextBoolean() ? 60 + random.nextInt(30) : 0));
+            } else if (op < 8) {
+                WorkoutStatus status = statuses.remove(random.nextInt(statuses.size()));
+                LocalDate date = START.plusDays(random.nextInt(70));
+                int distance = random.nextInt(20);
+                int weight = random.nextBoolean() ? 60 + random.nextInt(30) : 0;
+                statuses.add(edit(status, edited -> {
+                    edited.setDate(date);
+                    edited.setDistance(distance);
+                    edited.setWeight(weight);
+                }));
+            } else {
+                delete(statuses.remove(random.nextInt(statuses.size())));
+            }
+        }
+        assertTrue(rollups().size() > 0);
+        assertRollupsMatchRebuild();
+    }
+
+    @Test
+    void concurrentEditsAndDeletesOfOneStatusApplyOnce() throws Exception {
+        User user = new User();
+        user.setId(USER);
+        mongoTemplate.insert(user);
+        WorkoutStatusServiceImpl statusService = new WorkoutStatusServiceImpl();
+        ReflectionTestUtils.setField(statusService, "workoutStatusRepository", workoutStatusRepository);
+        ReflectionTestUtils.setField(statusService, "userCache",
+                new UserCache(mongo.repository(UserRepository.class, new UserRepositoryCustomImpl(mongoTemplate)), 10, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(statusService, "workoutProgressService", progressService);
+
+        WorkoutStatus edited = create(START, 10, 20, 80);
+        WorkoutStatus deleted = create(START, 5, 10, 70);
+        race(8, i -> {
+            WorkoutStatus status = new WorkoutStatus();
+            status.setUserId(USER);
+            status.setDate(START.plusDays(i % 3));
+            status.setDistance(i);
+            statusService.updateWorkoutStatus(edited.getStatusId(), status);
+            statusService.deleteWorkoutStatus(deleted.getStatusId());
+        });
+
+        // the extremes of a contended day can lag until the next rebuild; counts and sums may not
+        List<String> incremental = rollups().stream().map(WorkoutProgressServiceImplTest::totals).toList();
+        progressService.rebuild(USER);
+        assertEquals(rollups().stream().map(WorkoutProgressServiceImplTest::totals).toList(), incremental);
+    }
+
+    private static String totals(WorkoutRollup rollup) {
+        return rollup.getId() + " " + rollup.getCount() + " " + rollup.getDistanceSum() + " " + rollup.getPushUpsSum()
+                + " " + rollup.getWeightCount() + " " + rollup.getWeightSum();
+    }
+
+    private static void race(int threads, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.accept(n);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertRollupsMatchRebuild() {
+        List<WorkoutRollup> incremental = rollups();
+        progressService.rebuild(USER);
+        assertEquals(rollups(), incremental);
+    }
+
+    private List<WorkoutRollup> rollups() {
+        return mongoTemplate.find(Query.query(Criteria.where("userId").is(USER)).with(Sort.by("_id")), WorkoutRollup.class);
+    }
+
+    private WorkoutStatus create(LocalDate date, int distance, int pushUps, int weight) {
+        WorkoutStatus status = new WorkoutStatus();
+        status.setUserId(USER);
+        status.setDate(date);
+        status.setDistance(distance);
+        status.setPushUps(pushUps);
+        status.setWeight(weight);
+        WorkoutStatus saved = mongoTemplate.insert(status);
+        progressService.recordCreated(saved);
+        return saved;
+    }
+
+    private WorkoutStatus edit(WorkoutStatus status, Consumer<WorkoutStatus> change) {
+        WorkoutStatus before = mongoTemplate.findById(status.getStatusId(), WorkoutStatus.class);
+        WorkoutStatus after = mongoTemplate.findById(status.getStatusId(), WorkoutStatus.class);
+        change.accept(after);
+        mongoTemplate.save(after);
+        progressService.recordUpdated(before, after);
+        return after;
+    }
+
+    private void delete(WorkoutStatus status) {
+        mongoTemplate.remove(status);
+        progressService.recordDeleted(status);
+    }
+}
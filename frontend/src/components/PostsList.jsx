@@ -15,6 +15,7 @@ import { app } from "../db/firebase";
 import { FaImage, FaPaperPlane } from "react-icons/fa6";
 
 const API_URL = "http://localhost:8080";
+const COMMENT_PAGE_SIZE = 20;
 const storage = getStorage(app);
 
 const PostsList = ({
@@ -37,16 +38,44 @@ const PostsList = ({
   const [commentMediaPreview, setCommentMediaPreview] = useState(null);
   const [error, setError] = useState("");
   const [comments, setComments] = useState([]);
+  const [threadLoaded, setThreadLoaded] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
   const [isLoading, setIsLoading] = useState(false);
 
   const navigate = useNavigate();
 
+  // Posts only carry the newest comments; the full thread is fetched when opened
   useEffect(() => {
-    if (post?.comments) {
-      console.log('Post comments:', post.comments); // Debug log for comments
-      setComments(post.comments);
+    if (!threadLoaded) {
+      setComments(
+        (post?.latestComments || []).map((preview) => ({ ...preview, id: preview.commentId }))
+      );
+    }
+  }, [post?.latestComments]);
+
+  const loadComments = async (after) => {
+    try {
+      setIsLoading(true);
+      const { data } = await axios.get(`${API_URL}/api/comments/post/${post.id}`, {
+        params: { limit: COMMENT_PAGE_SIZE, after },
+      });
+      setComments((prev) => (after ? [...prev, ...data.items] : data.items));
+      setNextCursor(data.nextCursor);
+      setThreadLoaded(true);
+    } catch (error) {
+      console.error('Error loading comments:', error);
+      toast.error('Failed to load comments');
+    } finally {
+      setIsLoading(false);
     }
-  }, [post?.comments]);
+  };
+
+  const openComments = () => {
+    setShowModal(true);
+    if (!threadLoaded && (post?.commentCount || 0) > comments.length) {
+      loadComments();
+    }
+  };
 
   const handleProfileClick = (userId) => {
     navigate(`/profile/${userId}`);
@@ -177,7 +206,7 @@ const PostsList = ({
             ...response.data,
             createdAt: new Date().toISOString()
           };
-          setComments(prev => [...prev, newComment]);
+          setComments(prev => [newComment, ...prev]);
           toast.success("Comment added successfully");
         }
       }
@@ -211,9 +240,6 @@ const PostsList = ({
       
       // First update the UI optimistically
       setComments(prev => prev.filter(c => c.id !== commentId));
-      if (post.comments) {
-        post.comments = post.comments.filter(c => c.id !== commentId);
-      }
       
       // Then make the API call
       await axios.delete(`${API_URL}/api/comments/${post.id}/${commentId}`);
@@ -227,9 +253,6 @@ const PostsList = ({
       console.error('Error deleting comment:', error);
       // Revert the UI changes on error
       setComments(prev => [...prev, commentToDelete]);
-      if (post.comments) {
-        post.comments = [...post.comments, commentToDelete];
-      }
       toast.error('Failed to delete comment');
     } finally {
       setIsLoading(false);
@@ -362,10 +385,10 @@ const PostsList = ({
             </div>
             <div
               className="flex items-center gap-3 cursor-pointer hover:text-blue-500 transition-colors duration-200"
-              onClick={() => setShowModal(true)}
+              onClick={openComments}
             >
               <MdOutlineInsertComment size={24} color="blue" />
-              <p className="text-gray-600">{post?.comments?.length} Comment</p>
+              <p className="text-gray-600">{post?.commentCount || 0} Comment</p>
             </div>
             <div
               className="flex items-center gap-3 cursor-pointer hover:text-green-500 transition-colors duration-200"
@@ -375,6 +398,29 @@ const PostsList = ({
               <p className="text-gray-600">Share</p>
             </div>
           </div>
+          {post?.latestComments?.length > 0 && (
+            <div className="mt-4 space-y-2">
+              {post.latestComments.map((preview) => (
+                <div key={preview.commentId} className="text-sm">
+                  <span
+                    className="font-semibold cursor-pointer hover:text-yellow-600 transition-colors duration-200"
+                    onClick={() => navigate(`/profile/${preview.commentById}`)}
+                  >
+                    {preview.commentBy}
+                  </span>{" "}
+                  <span className="text-gray-700">{preview.content}</span>
+                </div>
+              ))}
+              {post.commentCount > post.latestComments.length && (
+                <button
+                  onClick={openComments}
+                  className="text-sm text-gray-500 hover:text-gray-700 transition-colors duration-200"
+                >
+                  View all {post.commentCount} comments
+                </button>
+              )}
+            </div>
+          )}
         </div>
       </div>
 
@@ -393,7 +439,7 @@ const PostsList = ({
 
             <div className="space-y-4">
               {comments.map((comment) => (
-                <div key={comment._id} className="flex space-x-2">
+                <div key={comment.id} className="flex space-x-2">
                   <img
                     src={comment.commentByProfile}
                     alt="Profile"
@@ -460,6 +506,15 @@ const PostsList = ({
                   </div>
                 </div>
               ))}
+              {nextCursor && (
+                <button
+                  onClick={() => loadComments(nextCursor)}
+                  disabled={isLoading}
+                  className="text-sm text-gray-500 hover:text-gray-700 transition-colors duration-200"
+                >
+                  Load more comments
+                </button>
+              )}
             </div>
 
             <div className="mt-4">